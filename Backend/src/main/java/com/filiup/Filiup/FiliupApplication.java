@@ -2,8 +2,10 @@ package com.filiup.Filiup;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FiliupApplication {
 
 	public static void main(String[] args) {
@@ -1,18 +1,27 @@
 package com.filiup.Filiup.controller;
 
+import com.filiup.Filiup.dto.user.BulkUserImportResponse;
 import com.filiup.Filiup.dto.user.CreateUserRequest;
 import com.filiup.Filiup.dto.user.UserResponse;
 import com.filiup.Filiup.entity.UserRole;
 import com.filiup.Filiup.service.AdminService;
+import com.filiup.Filiup.service.UserImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -22,6 +31,7 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final UserImportService userImportService;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getSystemStats() {
@@ -78,6 +88,19 @@ public class AdminController {
         return ResponseEntity.ok(adminService.createUser(request));
     }
 
+    @PostMapping("/users/bulk")
+    public ResponseEntity<BulkUserImportResponse> importUsers(@RequestBody List<CreateUserRequest> requests) {
+        // Rows are validated one by one so a bad row is reported instead of failing the whole import
+        return ResponseEntity.ok(userImportService.importUsers(requests));
+    }
+
+    @PostMapping(value = "/users/bulk/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkUserImportResponse> importUsersCsv(@RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(userImportService.importCsv(reader));
+        }
+    }
+
     @PutMapping("/users/{id}")
     public ResponseEntity<UserResponse> updateUser(
             @PathVariable UUID id,
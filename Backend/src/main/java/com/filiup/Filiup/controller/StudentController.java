@@ -2,24 +2,28 @@ package com.filiup.Filiup.controller;
 
 import com.filiup.Filiup.dto.activity.ActivityContentResponse;
 import com.filiup.Filiup.dto.dashboard.StudentDashboardResponse;
+import com.filiup.Filiup.dto.leaderboard.SchoolLeaderboardResponse;
 import com.filiup.Filiup.dto.lesson.LessonContentResponse;
 import com.filiup.Filiup.dto.student.ActivitySubmissionResponse;
+import com.filiup.Filiup.dto.student.BatchSubmissionResponse;
+import com.filiup.Filiup.dto.student.BatchSubmitActivityRequest;
 import com.filiup.Filiup.dto.student.ProfileResponse;
 import com.filiup.Filiup.dto.student.RegisterSectionRequest;
 import com.filiup.Filiup.dto.student.SubmitActivityRequest;
 import com.filiup.Filiup.dto.teacher.SectionLeaderboardResponse;
-import com.filiup.Filiup.entity.User;
-import com.filiup.Filiup.repository.UserRepository;
+import com.filiup.Filiup.security.AuthenticatedUser;
+import com.filiup.Filiup.security.CurrentUser;
 import com.filiup.Filiup.service.ActivityContentService;
+import com.filiup.Filiup.service.ActivitySubmissionService;
+import com.filiup.Filiup.service.LeaderboardService;
 import com.filiup.Filiup.service.LessonContentService;
 import com.filiup.Filiup.service.LessonService;
 import com.filiup.Filiup.service.StudentDashboardService;
 import com.filiup.Filiup.service.StudentService;
+import com.filiup.Filiup.service.leaderboard.LeaderboardPeriod;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -32,27 +36,26 @@ import java.util.UUID;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ActivitySubmissionService activitySubmissionService;
+    private final LeaderboardService leaderboardService;
     private final LessonService lessonService;
     private final StudentDashboardService studentDashboardService;
     private final LessonContentService lessonContentService;
     private final ActivityContentService activityContentService;
-    private final UserRepository userRepository;
 
     @PostMapping("/register-section")
     public ResponseEntity<Map<String, String>> registerSection(
             @Valid @RequestBody RegisterSectionRequest request,
-            Authentication authentication) {
+            @CurrentUser AuthenticatedUser currentUser) {
         
-        UUID studentId = extractStudentId(authentication);
-        studentService.registerToSection(studentId, request);
+        studentService.registerToSection(currentUser.getId(), request);
         
         return ResponseEntity.ok(Map.of("message", "Successfully registered to section"));
     }
 
     @GetMapping("/lessons")
-    public ResponseEntity<List<Map<String, Object>>> getLessons(Authentication authentication) {
-        UUID studentId = extractStudentId(authentication);
-        return ResponseEntity.ok(lessonService.getLessonsWithProgress(studentId));
+    public ResponseEntity<List<Map<String, Object>>> getLessons(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(lessonService.getLessonsWithProgress(currentUser.getId()));
     }
 
     @GetMapping("/lessons/{id}")
@@ -63,10 +66,9 @@ public class StudentController {
     @PostMapping("/lessons/{id}/complete")
     public ResponseEntity<Map<String, String>> completeLesson(
             @PathVariable UUID id,
-            Authentication authentication) {
+            @CurrentUser AuthenticatedUser currentUser) {
         
-        UUID studentId = extractStudentId(authentication);
-        studentService.completeLessonReading(studentId, id);
+        studentService.completeLessonReading(currentUser.getId(), id);
         
         return ResponseEntity.ok(Map.of("message", "Lesson marked as completed"));
     }
@@ -80,17 +82,25 @@ public class StudentController {
     public ResponseEntity<ActivitySubmissionResponse> submitActivity(
             @PathVariable UUID id,
             @Valid @RequestBody SubmitActivityRequest request,
-            Authentication authentication) {
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @CurrentUser AuthenticatedUser currentUser) {
         
-        UUID studentId = extractStudentId(authentication);
-        return ResponseEntity.ok(studentService.submitActivity(studentId, id, request));
+        return ResponseEntity.ok(activitySubmissionService.submitActivity(currentUser.getId(), id, request, idempotencyKey));
+    }
+
+    // Uploads activities finished while offline; each submission gets its own result
+    @PostMapping("/activities/submissions")
+    public ResponseEntity<BatchSubmissionResponse> submitActivities(
+            @Valid @RequestBody BatchSubmitActivityRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+
+        return ResponseEntity.ok(studentService.submitActivities(currentUser.getId(), request));
     }
 
     // New endpoints for StudentDashboard
     @GetMapping("/dashboard")
-    public ResponseEntity<StudentDashboardResponse> getStudentDashboard(Authentication authentication) {
-        UUID studentId = extractStudentId(authentication);
-        return ResponseEntity.ok(studentDashboardService.getStudentDashboard(studentId));
+    public ResponseEntity<StudentDashboardResponse> getStudentDashboard(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(studentDashboardService.getStudentDashboard(currentUser.getId()));
     }
 
     @GetMapping("/lessons/{id}/content")
@@ -104,35 +114,34 @@ public class StudentController {
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<SectionLeaderboardResponse> getLeaderboard(Authentication authentication) {
-        UUID studentId = extractStudentId(authentication);
-        return ResponseEntity.ok(studentService.getStudentSectionLeaderboard(studentId));
+    public ResponseEntity<SectionLeaderboardResponse> getLeaderboard(
+            @RequestParam(required = false) String period,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(studentService.getStudentSectionLeaderboard(currentUser.getId(),
+                LeaderboardPeriod.from(period)));
+    }
+
+    @GetMapping("/leaderboard/school")
+    public ResponseEntity<SchoolLeaderboardResponse> getSchoolLeaderboard(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboardService.getSchoolLeaderboard(cursor, limit));
     }
     
     @GetMapping("/profile")
-    public ResponseEntity<ProfileResponse> getStudentProfile(Authentication authentication) {
-        UUID studentId = extractStudentId(authentication);
-        return ResponseEntity.ok(studentService.getStudentProfile(studentId));
+    public ResponseEntity<ProfileResponse> getStudentProfile(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(studentService.getStudentProfile(currentUser.getId()));
     }
     
     @PutMapping("/profile")
     public ResponseEntity<Map<String, String>> updateProfile(
             @RequestBody Map<String, String> request,
-            Authentication authentication) {
+            @CurrentUser AuthenticatedUser currentUser) {
         
-        UUID studentId = extractStudentId(authentication);
         String fullName = request.get("fullName");
         
-        studentService.updateProfile(studentId, fullName);
+        studentService.updateProfile(currentUser.getId(), fullName);
         
         return ResponseEntity.ok(Map.of("message", "Profile updated successfully"));
     }
-
-    private UUID extractStudentId(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
-    }
 }
@@ -1,18 +1,19 @@
 package com.filiup.Filiup.controller;
 
+import com.filiup.Filiup.dto.leaderboard.SchoolLeaderboardResponse;
 import com.filiup.Filiup.dto.section.CreateSectionRequest;
 import com.filiup.Filiup.dto.section.SectionResponse;
 import com.filiup.Filiup.dto.teacher.SectionLeaderboardResponse;
 import com.filiup.Filiup.dto.teacher.TeacherDashboardResponse;
-import com.filiup.Filiup.entity.User;
-import com.filiup.Filiup.repository.UserRepository;
+import com.filiup.Filiup.security.AuthenticatedUser;
+import com.filiup.Filiup.security.CurrentUser;
+import com.filiup.Filiup.service.LeaderboardService;
 import com.filiup.Filiup.service.SectionService;
 import com.filiup.Filiup.service.TeacherService;
+import com.filiup.Filiup.service.leaderboard.LeaderboardPeriod;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -25,20 +26,18 @@ public class TeacherController {
 
     private final SectionService sectionService;
     private final TeacherService teacherService;
-    private final UserRepository userRepository;
+    private final LeaderboardService leaderboardService;
 
     @GetMapping("/sections")
-    public ResponseEntity<List<SectionResponse>> getSections(Authentication authentication) {
-        UUID teacherId = extractTeacherId(authentication);
-        return ResponseEntity.ok(sectionService.getTeacherSections(teacherId));
+    public ResponseEntity<List<SectionResponse>> getSections(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(sectionService.getTeacherSections(currentUser.getId()));
     }
 
     @PostMapping("/sections")
     public ResponseEntity<SectionResponse> createSection(
             @Valid @RequestBody CreateSectionRequest request,
-            Authentication authentication) {
-        UUID teacherId = extractTeacherId(authentication);
-        return ResponseEntity.ok(sectionService.createSection(request, teacherId));
+            @CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(sectionService.createSection(request, currentUser.getId()));
     }
 
     @GetMapping("/sections/{id}")
@@ -47,27 +46,28 @@ public class TeacherController {
     }
 
     @GetMapping("/dashboard")
-    public ResponseEntity<TeacherDashboardResponse> getDashboard(Authentication authentication) {
-        UUID teacherId = extractTeacherId(authentication);
-        return ResponseEntity.ok(teacherService.getDashboard(teacherId));
+    public ResponseEntity<TeacherDashboardResponse> getDashboard(@CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(teacherService.getDashboard(currentUser.getId()));
     }
 
     @GetMapping("/sections/{sectionId}/leaderboard")
-    public ResponseEntity<SectionLeaderboardResponse> getSectionLeaderboard(@PathVariable UUID sectionId) {
-        return ResponseEntity.ok(teacherService.getSectionLeaderboard(sectionId));
+    public ResponseEntity<SectionLeaderboardResponse> getSectionLeaderboard(
+            @PathVariable UUID sectionId,
+            @RequestParam(required = false) String period) {
+        return ResponseEntity.ok(teacherService.getSectionLeaderboard(sectionId, LeaderboardPeriod.from(period)));
     }
 
     @GetMapping("/leaderboard/all-sections")
-    public ResponseEntity<List<SectionLeaderboardResponse>> getAllSectionsLeaderboard(Authentication authentication) {
-        UUID teacherId = extractTeacherId(authentication);
-        return ResponseEntity.ok(teacherService.getAllSectionsLeaderboard(teacherId));
+    public ResponseEntity<List<SectionLeaderboardResponse>> getAllSectionsLeaderboard(
+            @RequestParam(required = false) String period,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(teacherService.getAllSectionsLeaderboard(currentUser.getId(), LeaderboardPeriod.from(period)));
     }
 
-    private UUID extractTeacherId(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String email = userDetails.getUsername();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+    @GetMapping("/leaderboard/school")
+    public ResponseEntity<SchoolLeaderboardResponse> getSchoolLeaderboard(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboardService.getSchoolLeaderboard(cursor, limit));
     }
 }
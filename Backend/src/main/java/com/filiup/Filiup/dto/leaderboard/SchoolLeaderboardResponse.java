@@ -0,0 +1,22 @@
+package com.filiup.Filiup.dto.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchoolLeaderboardResponse {
+    // Top students of the school; only on the first page
+    private List<StudentRankingDTO> podium;
+    private List<StudentRankingDTO> rankings;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+    private LocalDateTime lastUpdated;
+}
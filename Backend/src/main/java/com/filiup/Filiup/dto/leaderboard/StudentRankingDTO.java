@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
 public class StudentRankingDTO {
     private String studentId;
     private String studentName;
+    private String sectionName;
     private Integer totalScore;
     private BigDecimal averagePercentage;
     private Integer completedActivities;
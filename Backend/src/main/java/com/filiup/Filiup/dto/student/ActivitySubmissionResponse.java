@@ -19,6 +19,8 @@ public class ActivitySubmissionResponse {
     private Integer correctAnswers;
     private Integer totalQuestions;
     private NextActivity nextActivity;
+    // Set instead of nextActivity when the submitted activity is the last of its lesson
+    private NextLesson nextLesson;
     
     @Data
     @Builder
@@ -28,4 +30,16 @@ public class ActivitySubmissionResponse {
         private UUID id;
         private String type;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NextLesson {
+        private UUID id;
+        private String title;
+        private UUID phaseId;
+        private String phaseTitle;
+        private boolean newPhase;
+    }
 }
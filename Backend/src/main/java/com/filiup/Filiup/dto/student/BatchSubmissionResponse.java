@@ -0,0 +1,33 @@
+package com.filiup.Filiup.dto.student;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSubmissionResponse {
+    private int accepted;
+    private int rejected;
+    // One entry per submission, in request order
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        // 0-based position of the submission in the request
+        private int index;
+        private UUID activityId;
+        // Set when the submission was scored and recorded
+        private ActivitySubmissionResponse submission;
+        // Set when the submission was rejected
+        private String error;
+    }
+}
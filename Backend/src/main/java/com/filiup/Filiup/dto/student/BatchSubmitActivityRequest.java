@@ -0,0 +1,39 @@
+package com.filiup.Filiup.dto.student;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSubmitActivityRequest {
+
+    @NotEmpty(message = "At least one submission is required")
+    @Valid
+    private List<Submission> submissions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Submission {
+
+        @NotNull(message = "Activity ID is required")
+        private UUID activityId;
+
+        @NotNull(message = "Answers are required")
+        private List<Object> answers;
+
+        private Integer timeSpentSeconds;
+
+        // When the student finished the activity on the device; defaults to the time of upload
+        private LocalDateTime completedAt;
+    }
+}
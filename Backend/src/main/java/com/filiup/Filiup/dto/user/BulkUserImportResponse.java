@@ -0,0 +1,29 @@
+package com.filiup.Filiup.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserImportResponse {
+    private int totalRows;
+    private int created;
+    private int failed;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based position of the row in the submitted list or CSV body
+        private int row;
+        private String email;
+        private String message;
+    }
+}
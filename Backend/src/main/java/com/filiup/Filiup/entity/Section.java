@@ -40,6 +40,11 @@ public class Section {
     @Column
     private Integer capacity = 30;
 
+    // Students currently assigned; only changed through SectionRepository's atomic updates
+    @Builder.Default
+    @Column(name = "enrolled_count", updatable = false)
+    private Integer enrolledCount = 0;
+
     @Builder.Default
     @Column(name = "is_active")
     private Boolean isActive = true;
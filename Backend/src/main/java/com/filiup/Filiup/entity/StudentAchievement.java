@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "student_achievements")
+@Table(name = "student_achievements",
+       uniqueConstraints = @UniqueConstraint(name = "uk_student_achievements_student_type",
+                                             columnNames = {"student_id", "achievement_type"}))
 @Getter
 @Setter
 @NoArgsConstructor
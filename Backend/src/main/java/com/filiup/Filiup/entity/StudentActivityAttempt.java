@@ -12,7 +12,9 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "student_activity_attempts")
+// Append-only history: one row per submission. Best scores live in student_best_attempts.
+@Table(name = "student_activity_attempts",
+       indexes = @Index(name = "idx_student_activity_attempts_student_created", columnList = "student_id, created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,86 @@
+package com.filiup.Filiup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The student's best attempt at an activity (highest percentage, earliest on ties), kept up to
+ * date by the statement that appends each attempt to {@code student_activity_attempts}.
+ */
+@Entity
+@Table(name = "student_best_attempts",
+       uniqueConstraints = @UniqueConstraint(name = "uk_student_best_attempts_student_activity",
+                                             columnNames = {"student_id", "activity_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentBestAttempt {
+
+    @Id
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private User student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "activity_id", nullable = false)
+    private Activity activity;
+
+    // The history row this best score comes from
+    @Column(name = "attempt_id", nullable = false)
+    private UUID attemptId;
+
+    @Column(nullable = false)
+    private Integer score;
+
+    @Column(nullable = false, name = "total_questions")
+    private Integer totalQuestions;
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal percentage;
+
+    @Column(name = "time_spent_seconds")
+    private Integer timeSpentSeconds;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Builder.Default
+    @Column(name = "attempts_count", nullable = false)
+    private int attemptsCount = 1;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // What the last write of this row added to the student's total in student_score_totals
+    @Builder.Default
+    @Column(name = "score_delta", nullable = false)
+    private int scoreDelta = 0;
+
+    // Some attempt scored 100%
+    @Builder.Default
+    @Column(name = "perfect", nullable = false)
+    private boolean perfect = false;
+
+    // Some attempt passed quickly (see AchievementRule)
+    @Builder.Default
+    @Column(name = "quick_pass", nullable = false)
+    private boolean quickPass = false;
+
+    // 1 when the last write of this row set perfect for the first time, otherwise 0
+    @Builder.Default
+    @Column(name = "perfect_delta", nullable = false)
+    private int perfectDelta = 0;
+
+    // 1 when the last write of this row set quick_pass for the first time, otherwise 0
+    @Builder.Default
+    @Column(name = "quick_pass_delta", nullable = false)
+    private int quickPassDelta = 0;
+}
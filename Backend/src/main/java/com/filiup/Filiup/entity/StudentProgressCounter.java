@@ -0,0 +1,53 @@
+package com.filiup.Filiup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running totals of a student's progress, incremented by the statements that record it.
+ * Achievement rules are evaluated against this single row instead of the progress history.
+ */
+@Entity
+@Table(name = "student_progress_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentProgressCounter {
+
+    @Id
+    @Column(name = "student_id")
+    private UUID studentId;
+
+    @Builder.Default
+    @Column(name = "lessons_completed", nullable = false)
+    private int lessonsCompleted = 0;
+
+    @Builder.Default
+    @Column(name = "phases_completed", nullable = false)
+    private int phasesCompleted = 0;
+
+    @Builder.Default
+    @Column(name = "perfect_scores", nullable = false)
+    private int perfectScores = 0;
+
+    // Passing submissions finished within the quick-pass time limit
+    @Builder.Default
+    @Column(name = "quick_passes", nullable = false)
+    private int quickPasses = 0;
+
+    @Builder.Default
+    @Column(name = "time_spent_seconds", nullable = false)
+    private long timeSpentSeconds = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static StudentProgressCounter empty(UUID studentId) {
+        return StudentProgressCounter.builder().studentId(studentId).build();
+    }
+}
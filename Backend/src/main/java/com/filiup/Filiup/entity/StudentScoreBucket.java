@@ -0,0 +1,37 @@
+package com.filiup.Filiup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Points a student gained on one day: the sum of the changes to their best scores from attempts
+ * completed that day. Written by {@code AttemptWriter}; a window's leaderboard sums its days.
+ */
+@Entity
+@Table(name = "student_score_buckets",
+       uniqueConstraints = @UniqueConstraint(name = "uk_student_score_buckets_student_date",
+                                             columnNames = {"student_id", "bucket_date"}),
+       indexes = @Index(name = "idx_student_score_buckets_date", columnList = "bucket_date, student_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentScoreBucket {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int score = 0;
+}
@@ -0,0 +1,37 @@
+package com.filiup.Filiup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sum of a student's best scores, written together with the best attempts by
+ * {@code AttemptWriter}; indexed by total for the school-wide leaderboard.
+ */
+@Entity
+@Table(name = "student_score_totals",
+       indexes = @Index(name = "idx_student_score_totals_rank", columnList = "total_score DESC, student_id DESC"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentScoreTotal {
+
+    @Id
+    @Column(name = "student_id")
+    private UUID studentId;
+
+    @Builder.Default
+    @Column(name = "total_score", nullable = false)
+    private int totalScore = 0;
+
+    @Builder.Default
+    @Column(name = "activities_completed", nullable = false)
+    private int activitiesCompleted = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
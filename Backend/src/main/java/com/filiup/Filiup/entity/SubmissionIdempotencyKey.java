@@ -0,0 +1,43 @@
+package com.filiup.Filiup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Entity
+@Table(name = "submission_idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_submission_idempotency_keys_student_key",
+                                             columnNames = {"student_id", "idempotency_key"}),
+       indexes = @Index(name = "idx_submission_idempotency_keys_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubmissionIdempotencyKey {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "activity_id", nullable = false)
+    private UUID activityId;
+
+    // The ActivitySubmissionResponse returned to the first request; null while it is in flight
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
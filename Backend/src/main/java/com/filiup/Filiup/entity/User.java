@@ -46,6 +46,11 @@ public class User {
     @Column(name = "first_login")
     private Boolean firstLogin = true;
 
+    // Bumped whenever credentials change; access tokens carrying an older epoch are rejected
+    @Builder.Default
+    @Column(name = "token_epoch")
+    private Integer tokenEpoch = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -54,6 +59,10 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    public int currentTokenEpoch() {
+        return tokenEpoch != null ? tokenEpoch : 0;
+    }
+
     // Helper method for getting display name
     public String getName() {
         return this.fullName;
@@ -0,0 +1,13 @@
+package com.filiup.Filiup.exception;
+
+/**
+ * Thrown when a refresh token is refused after the user's tokens were revoked because of it.
+ * Transactions list it in {@code noRollbackFor} so that revocation is committed, not undone by
+ * the throw.
+ */
+public class RefreshTokenRejectedException extends RuntimeException {
+
+    public RefreshTokenRejectedException(String message) {
+        super(message);
+    }
+}
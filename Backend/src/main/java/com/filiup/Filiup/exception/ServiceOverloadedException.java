@@ -0,0 +1,18 @@
+package com.filiup.Filiup.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource (for example the password hashing pool) cannot accept more work.
+ * Mapped to HTTP 429 by {@link GlobalExceptionHandler}.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -15,6 +15,10 @@ public interface ActivityRepository extends JpaRepository<Activity, UUID> {
     List<Activity> findByLessonOrderByOrderIndexAsc(Lesson lesson);
     
     List<Activity> findAllByOrderByOrderIndexAsc();
+
+    // (id, lessonId, activityType, orderIndex) of every activity, for the curriculum index
+    @Query("SELECT a.id, l.id, a.activityType, a.orderIndex FROM Activity a LEFT JOIN a.lesson l")
+    List<Object[]> findOutline();
     
     @Query("SELECT MAX(a.orderIndex) FROM Activity a WHERE a.lesson.id = :lessonId")
     Integer findMaxOrderIndexByLesson(@Param("lessonId") UUID lessonId);
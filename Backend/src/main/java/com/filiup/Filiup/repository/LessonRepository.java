@@ -15,6 +15,10 @@ public interface LessonRepository extends JpaRepository<Lesson, UUID> {
     List<Lesson> findByPhaseOrderByOrderIndexAsc(Phase phase);
     
     List<Lesson> findAllByOrderByOrderIndexAsc();
+
+    // (id, phaseId, title, orderIndex) of every lesson, for the curriculum index
+    @Query("SELECT l.id, p.id, l.title, l.orderIndex FROM Lesson l LEFT JOIN l.phase p")
+    List<Object[]> findOutline();
     
     @Query("SELECT MAX(l.orderIndex) FROM Lesson l WHERE l.phase.id = :phaseId")
     Integer findMaxOrderIndexByPhase(@Param("phaseId") UUID phaseId);
@@ -13,6 +13,10 @@ import java.util.UUID;
 @Repository
 public interface PhaseRepository extends JpaRepository<Phase, UUID> {
     List<Phase> findAllByOrderByOrderIndexAsc();
+
+    // (id, title, orderIndex) of every phase, for the curriculum index
+    @Query("SELECT p.id, p.title, p.orderIndex FROM Phase p")
+    List<Object[]> findOutline();
     
     @Query("SELECT MAX(p.orderIndex) FROM Phase p")
     Integer findMaxOrderIndex();
@@ -3,7 +3,11 @@ package com.filiup.Filiup.repository;
 import com.filiup.Filiup.entity.Section;
 import com.filiup.Filiup.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +19,22 @@ public interface SectionRepository extends JpaRepository<Section, UUID> {
     List<Section> findByTeacherId(UUID teacherId);
     Optional<Section> findByInviteCode(String inviteCode);
     boolean existsByInviteCode(String inviteCode);
+
+    /**
+     * Takes a seat if the section is active and below capacity. The row lock taken by the update
+     * makes concurrent enrollments queue up, so the capacity check and increment are atomic.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Section s SET s.enrolledCount = COALESCE(s.enrolledCount, 0) + 1 " +
+           "WHERE s.id = :id AND s.isActive = true " +
+           "AND (s.capacity IS NULL OR COALESCE(s.enrolledCount, 0) < s.capacity)")
+    int tryReserveSeat(@Param("id") UUID id);
+
+    // Unconditional adjustment for admin assignments, which may exceed capacity
+    @Modifying
+    @Transactional
+    @Query("UPDATE Section s SET s.enrolledCount = CASE WHEN COALESCE(s.enrolledCount, 0) + :delta < 0 THEN 0 " +
+           "ELSE COALESCE(s.enrolledCount, 0) + :delta END WHERE s.id = :id")
+    int adjustEnrolledCount(@Param("id") UUID id, @Param("delta") int delta);
 }
@@ -3,8 +3,11 @@ package com.filiup.Filiup.repository;
 import com.filiup.Filiup.entity.StudentAchievement;
 import com.filiup.Filiup.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +15,11 @@ import java.util.UUID;
 public interface StudentAchievementRepository extends JpaRepository<StudentAchievement, UUID> {
     List<StudentAchievement> findByStudent(User student);
     boolean existsByStudentAndAchievementType(User student, String achievementType);
+
+    // (studentId, achievementType) pairs already earned by the given students
+    @Query("SELECT a.student.id, a.achievementType FROM StudentAchievement a WHERE a.student.id IN :studentIds")
+    List<Object[]> findTypesByStudentIds(@Param("studentIds") Collection<UUID> studentIds);
+
+    @Query("SELECT a.achievementType FROM StudentAchievement a WHERE a.student.id = :studentId")
+    List<String> findTypesByStudentId(@Param("studentId") UUID studentId);
 }
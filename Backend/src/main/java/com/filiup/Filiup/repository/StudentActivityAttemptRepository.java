@@ -32,12 +32,6 @@ public interface StudentActivityAttemptRepository extends JpaRepository<StudentA
     // Methods for student dashboard
     List<StudentActivityAttempt> findByStudentIdOrderByCreatedAtDesc(UUID studentId);
     
-    // Get latest attempt for each activity (one per activity to avoid duplicates)
-    @Query("SELECT a FROM StudentActivityAttempt a WHERE a.student.id = :studentId " +
-           "AND a.createdAt = (SELECT MAX(a2.createdAt) FROM StudentActivityAttempt a2 " +
-           "WHERE a2.student.id = :studentId AND a2.activity.id = a.activity.id)")
-    List<StudentActivityAttempt> findBestAttemptsByStudentId(UUID studentId);
-    
     // Find attempts by student and activity
     List<StudentActivityAttempt> findByStudentAndActivity(User student, Activity activity);
 }
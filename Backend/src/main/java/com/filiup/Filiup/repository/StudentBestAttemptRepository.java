@@ -0,0 +1,34 @@
+package com.filiup.Filiup.repository;
+
+import com.filiup.Filiup.entity.StudentBestAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StudentBestAttemptRepository extends JpaRepository<StudentBestAttempt, UUID> {
+    // One row per activity the student has attempted
+    List<StudentBestAttempt> findByStudentId(UUID studentId);
+
+    String STANDINGS_SQL =
+            "SELECT u.id, u.full_name, COALESCE(SUM(b.score), 0), COUNT(b.id), AVG(b.percentage), " +
+            "COALESCE(MAX(c.lessons_completed), 0) " +
+            "FROM users u " +
+            "LEFT JOIN student_best_attempts b ON b.student_id = u.id " +
+            "LEFT JOIN student_progress_counters c ON c.student_id = u.id " +
+            "WHERE u.section_id = :sectionId ";
+
+    // Leaderboard standing of every student of the section: id, name, total, activities, average, lessons
+    @Query(value = STANDINGS_SQL + "GROUP BY u.id, u.full_name", nativeQuery = true)
+    List<Object[]> findSectionStandings(@Param("sectionId") UUID sectionId);
+
+    // Same for some students; those no longer in the section are not returned
+    @Query(value = STANDINGS_SQL + "AND u.id IN (:studentIds) GROUP BY u.id, u.full_name", nativeQuery = true)
+    List<Object[]> findSectionStandings(@Param("sectionId") UUID sectionId,
+                                        @Param("studentIds") Collection<UUID> studentIds);
+}
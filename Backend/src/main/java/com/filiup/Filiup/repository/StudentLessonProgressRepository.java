@@ -4,8 +4,12 @@ import com.filiup.Filiup.entity.Lesson;
 import com.filiup.Filiup.entity.StudentLessonProgress;
 import com.filiup.Filiup.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +26,26 @@ public interface StudentLessonProgressRepository extends JpaRepository<StudentLe
     
     // Methods for student dashboard
     List<StudentLessonProgress> findByStudentId(UUID studentId);
+
+    // Marks the lesson as read in one statement, creating the progress row if needed.
+    // Returns 0 when the lesson was already completed, which keeps its first completion time.
+    @Modifying
+    @Query(value = "INSERT INTO student_lesson_progress (id, student_id, lesson_id, is_completed, completed_at, created_at) " +
+                   "VALUES (:id, :studentId, :lessonId, true, :completedAt, :completedAt) " +
+                   "ON CONFLICT (student_id, lesson_id) DO UPDATE SET is_completed = true, completed_at = EXCLUDED.completed_at " +
+                   "WHERE student_lesson_progress.is_completed IS NOT TRUE",
+           nativeQuery = true)
+    int upsertCompleted(@Param("id") UUID id,
+                        @Param("studentId") UUID studentId,
+                        @Param("lessonId") UUID lessonId,
+                        @Param("completedAt") LocalDateTime completedAt);
+
+    // Whether the student has completed every lesson of the given lesson's phase
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM lessons WHERE id = :lessonId AND phase_id IS NOT NULL) " +
+                   "AND NOT EXISTS (SELECT 1 FROM lessons l " +
+                   "WHERE l.phase_id = (SELECT phase_id FROM lessons WHERE id = :lessonId) " +
+                   "AND NOT EXISTS (SELECT 1 FROM student_lesson_progress p " +
+                   "WHERE p.lesson_id = l.id AND p.student_id = :studentId AND p.is_completed = true))",
+           nativeQuery = true)
+    boolean isPhaseCompleted(@Param("studentId") UUID studentId, @Param("lessonId") UUID lessonId);
 }
@@ -0,0 +1,36 @@
+package com.filiup.Filiup.repository;
+
+import com.filiup.Filiup.entity.StudentProgressCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface StudentProgressCounterRepository extends JpaRepository<StudentProgressCounter, UUID> {
+
+    // Adds the deltas to the student's counters, creating the row on the first progress
+    @Modifying
+    @Query(value = "INSERT INTO student_progress_counters (student_id, lessons_completed, phases_completed, " +
+                   "perfect_scores, quick_passes, time_spent_seconds, updated_at) " +
+                   "VALUES (:studentId, :lessons, :phases, :perfectScores, :quickPasses, :timeSpent, :now) " +
+                   "ON CONFLICT (student_id) DO UPDATE SET " +
+                   "lessons_completed = student_progress_counters.lessons_completed + EXCLUDED.lessons_completed, " +
+                   "phases_completed = student_progress_counters.phases_completed + EXCLUDED.phases_completed, " +
+                   "perfect_scores = student_progress_counters.perfect_scores + EXCLUDED.perfect_scores, " +
+                   "quick_passes = student_progress_counters.quick_passes + EXCLUDED.quick_passes, " +
+                   "time_spent_seconds = student_progress_counters.time_spent_seconds + EXCLUDED.time_spent_seconds, " +
+                   "updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int increment(@Param("studentId") UUID studentId,
+                  @Param("lessons") int lessons,
+                  @Param("phases") int phases,
+                  @Param("perfectScores") int perfectScores,
+                  @Param("quickPasses") int quickPasses,
+                  @Param("timeSpent") long timeSpent,
+                  @Param("now") LocalDateTime now);
+}
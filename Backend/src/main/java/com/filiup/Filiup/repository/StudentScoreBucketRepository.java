@@ -0,0 +1,31 @@
+package com.filiup.Filiup.repository;
+
+import com.filiup.Filiup.entity.StudentScoreBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StudentScoreBucketRepository extends JpaRepository<StudentScoreBucket, UUID> {
+
+    // Points gained since the given day by each student of the section that gained any: id, points
+    @Query(value = "SELECT b.student_id, SUM(b.score) " +
+                   "FROM student_score_buckets b " +
+                   "JOIN users u ON u.id = b.student_id " +
+                   "WHERE u.section_id = :sectionId AND b.bucket_date >= :from " +
+                   "GROUP BY b.student_id",
+           nativeQuery = true)
+    List<Object[]> sumSectionScoresSince(@Param("sectionId") UUID sectionId, @Param("from") LocalDate from);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StudentScoreBucket b WHERE b.bucketDate < :before")
+    int deleteOlderThan(@Param("before") LocalDate before);
+}
@@ -0,0 +1,35 @@
+package com.filiup.Filiup.repository;
+
+import com.filiup.Filiup.entity.StudentScoreTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StudentScoreTotalRepository extends JpaRepository<StudentScoreTotal, UUID> {
+
+    String RANKED_SQL =
+            "SELECT t.student_id, u.full_name, s.name, t.total_score, t.activities_completed " +
+            "FROM student_score_totals t " +
+            "JOIN users u ON u.id = t.student_id " +
+            "LEFT JOIN sections s ON s.id = u.section_id " +
+            "WHERE u.is_active = true ";
+
+    // School leaderboard rows are id, name, section name, total, activities; best first, ties by id
+
+    @Query(value = RANKED_SQL + "ORDER BY t.total_score DESC, t.student_id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findTop(@Param("limit") int limit);
+
+    // Keyset page: the rows ordered after (score, studentId), read from the rank index without an offset
+    @Query(value = RANKED_SQL + "AND (t.total_score, t.student_id) < (:score, :studentId) " +
+                   "ORDER BY t.total_score DESC, t.student_id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findAfter(@Param("score") int score, @Param("studentId") UUID studentId, @Param("limit") int limit);
+
+    @Query(value = RANKED_SQL + "AND t.student_id IN (:studentIds)", nativeQuery = true)
+    List<Object[]> findByStudentIds(@Param("studentIds") Collection<UUID> studentIds);
+}
@@ -0,0 +1,55 @@
+package com.filiup.Filiup.repository;
+
+import com.filiup.Filiup.entity.SubmissionIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SubmissionIdempotencyKeyRepository extends JpaRepository<SubmissionIdempotencyKey, UUID> {
+
+    Optional<SubmissionIdempotencyKey> findByStudentIdAndIdempotencyKey(UUID studentId, String idempotencyKey);
+
+    // Claims the key, or takes over an expired claim. Returns 0 when a live claim exists; a claim
+    // still in flight in another transaction makes this wait until that transaction ends.
+    @Modifying
+    @Query(value = "INSERT INTO submission_idempotency_keys AS k (id, student_id, idempotency_key, activity_id, created_at) " +
+                   "VALUES (:id, :studentId, :key, :activityId, :now) " +
+                   "ON CONFLICT (student_id, idempotency_key) DO UPDATE SET " +
+                   "activity_id = EXCLUDED.activity_id, response = NULL, created_at = EXCLUDED.created_at " +
+                   "WHERE k.created_at < :expiredBefore",
+           nativeQuery = true)
+    int claim(@Param("id") UUID id,
+              @Param("studentId") UUID studentId,
+              @Param("key") String key,
+              @Param("activityId") UUID activityId,
+              @Param("now") LocalDateTime now,
+              @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Modifying
+    @Query(value = "UPDATE submission_idempotency_keys SET response = CAST(:response AS jsonb) " +
+                   "WHERE student_id = :studentId AND idempotency_key = :key",
+           nativeQuery = true)
+    int storeResponse(@Param("studentId") UUID studentId,
+                      @Param("key") String key,
+                      @Param("response") String response);
+
+    // Drops a claim whose submission was never recorded
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SubmissionIdempotencyKey k " +
+           "WHERE k.studentId = :studentId AND k.idempotencyKey = :key AND k.response IS NULL")
+    int deletePending(@Param("studentId") UUID studentId, @Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SubmissionIdempotencyKey k WHERE k.createdAt < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") LocalDateTime expiredBefore);
+}
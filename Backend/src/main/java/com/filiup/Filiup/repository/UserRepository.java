@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +19,15 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Users whose older access tokens must be rejected (see TokenEpochRegistry)
+    @Query("SELECT u FROM User u WHERE u.tokenEpoch > 0 OR u.isActive = false")
+    List<User> findWithRevokedTokens();
+
+    // Matches case-insensitively; pass lower-case emails, the lower-cased stored emails are returned
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     Page<User> findByRole(UserRole role, Pageable pageable);
     List<User> findBySection(Section section);
     
@@ -0,0 +1,149 @@
+package com.filiup.Filiup.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt encoder whose cost is calibrated at startup to a target verification time on this
+ * node. Hashes are stored as {@code {bcrypt}$2a$<cost>$...}, so the algorithm and cost travel
+ * with each hash. Hashes below this node's cost or above {@code max-cost} (or without the
+ * prefix) report {@link #upgradeEncoding} and are rehashed on the next successful login. Stronger
+ * hashes within the bounds are kept, so nodes calibrated to different costs do not keep rehashing
+ * each other's hashes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    private static final String PREFIX = "{bcrypt}";
+    private static final int CALIBRATION_COST = 8;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final MeterRegistry meterRegistry;
+
+    // Fixed cost; 0 calibrates against target-ms
+    @Value("${security.hashing.cost:0}")
+    private int configuredCost;
+
+    @Value("${security.hashing.target-ms:100}")
+    private long targetMillis;
+
+    @Value("${security.hashing.min-cost:10}")
+    private int minCost;
+
+    @Value("${security.hashing.max-cost:14}")
+    private int maxCost;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ConcurrentHashMap<Integer, Timer> verifyTimers = new ConcurrentHashMap<>();
+
+    private volatile int cost;
+    private Timer encodeTimer;
+
+    @PostConstruct
+    void init() {
+        cost = configuredCost > 0 ? configuredCost : calibrate();
+        encodeTimer = Timer.builder("auth.password.encode")
+                .description("Time to hash a new password at the calibrated cost")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("auth.password.cost", this, encoder -> encoder.cost)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> PREFIX + BCrypt.hashpw(rawPassword.toString(), BCrypt.gensalt(cost, secureRandom)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        String hash = stripPrefix(encodedPassword);
+        int hashCost = costOf(hash);
+        if (hashCost < 0) {
+            log.warn("Stored password hash is not a BCrypt hash");
+            return false;
+        }
+        Timer timer = verifyTimers.computeIfAbsent(hashCost, c -> Timer.builder("auth.password.verify")
+                .description("Time to verify a password, by the cost stored in the hash")
+                .tag("cost", String.valueOf(c))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return timer.record(() -> BCrypt.checkpw(rawPassword.toString(), hash));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(PREFIX)) {
+            return true;
+        }
+        int hashCost = costOf(stripPrefix(encodedPassword));
+        return hashCost < cost || hashCost > Math.max(maxCost, cost);
+    }
+
+    /**
+     * Measures a cheap cost and extrapolates (each extra cost round doubles the work) to the
+     * highest cost whose verification stays within the target.
+     */
+    private int calibrate() {
+        String sample = "calibration-" + secureRandom.nextInt();
+        String hash = BCrypt.hashpw(sample, BCrypt.gensalt(CALIBRATION_COST, secureRandom));
+        BCrypt.checkpw(sample, hash); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw(sample, hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        int chosen = minCost;
+        for (int candidate = minCost; candidate <= maxCost; candidate++) {
+            long estimate = best << (candidate - CALIBRATION_COST);
+            if (estimate <= targetNanos) {
+                chosen = candidate;
+            }
+        }
+        log.info("Calibrated BCrypt cost {} (cost {} verified in {} µs, target {} ms)",
+                chosen, CALIBRATION_COST, TimeUnit.NANOSECONDS.toMicros(best), targetMillis);
+        return chosen;
+    }
+
+    private static String stripPrefix(String encodedPassword) {
+        return encodedPassword.startsWith(PREFIX) ? encodedPassword.substring(PREFIX.length()) : encodedPassword;
+    }
+
+    // Cost from a $2a$NN$ / $2b$NN$ / $2y$NN$ hash, or -1 if the hash is not BCrypt
+    private static int costOf(String hash) {
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(1) != '2' || hash.charAt(3) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.filiup.Filiup.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -23,9 +29,21 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Already-verified tokens keyed by a SHA-256 digest of the compact token
+    private final ConcurrentHashMap<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String extractUsername(String token) {
@@ -41,22 +59,65 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Returns the verified claims of the token. The signature is only checked the first time a
+     * token is seen; afterwards the claims are served from the cache until the token expires.
+     */
+    public Claims extractAllClaims(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+
+        Claims cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.getExpiration().getTime() > now) {
+                return cached;
+            }
+            verifiedTokens.remove(key);
+        }
+
+        // Throws if the signature is invalid or the token has expired
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+
+        if (claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                verifiedTokens.values().removeIf(c -> c.getExpiration().getTime() <= now);
+                if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+                    verifiedTokens.clear();
+                }
+            }
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Returns the claims of a token that has already been verified and has not expired, or null.
+     * Never checks a signature, so it is safe to call before the request is authenticated.
+     */
+    public Claims cachedClaims(String token) {
+        Claims cached = verifiedTokens.get(digest(token));
+        if (cached == null || cached.getExpiration().getTime() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return cached;
+    }
+
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateToken(String username, String role, String userId) {
+        return generateToken(username, role, userId, null, 0);
+    }
+
+    public String generateToken(String username, String role, String userId, String sectionId, int epoch) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
         claims.put("userId", userId);
+        claims.put("epoch", epoch);
+        if (sectionId != null) {
+            claims.put("sectionId", sectionId);
+        }
         return createToken(claims, username);
     }
 
@@ -69,12 +130,21 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expirationDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,129 @@
+package com.filiup.Filiup.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filiup.Filiup.exception.ErrorResponse;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured per-route rate limits. It runs ahead of the JWT filter, so rejected
+ * requests never reach the database or a signature check. Per-user rules key on the user ID of
+ * a token already in {@link JwtUtil}'s verified-token cache; any other request, including a
+ * user's first with a new token, is keyed by the client address.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final JwtUtil jwtUtil;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<CompiledRule> rules = new ArrayList<>();
+
+    @PostConstruct
+    void init() {
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            rules.add(new CompiledRule(
+                    rule,
+                    new RateLimiter(rule.getCapacity(), rule.getRefillPerMinute(), properties.getMaxKeys()),
+                    Counter.builder("ratelimit.requests")
+                            .description("Requests checked against a rate limit rule")
+                            .tag("rule", rule.getName())
+                            .tag("outcome", "allowed")
+                            .register(meterRegistry),
+                    Counter.builder("ratelimit.requests")
+                            .description("Requests checked against a rate limit rule")
+                            .tag("rule", rule.getName())
+                            .tag("outcome", "rejected")
+                            .register(meterRegistry)));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        for (CompiledRule compiled : rules) {
+            RateLimitProperties.Rule rule = compiled.rule();
+            if (!matches(rule, request.getMethod(), path)) {
+                continue;
+            }
+
+            long waitNanos = compiled.limiter().tryAcquire(resolveKey(rule, request));
+            if (waitNanos > 0) {
+                compiled.rejected().increment();
+                reject(response, waitNanos);
+                return;
+            }
+            compiled.allowed().increment();
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitProperties.Rule rule, String method, String path) {
+        if (!rule.getMethods().isEmpty() && rule.getMethods().stream().noneMatch(method::equalsIgnoreCase)) {
+            return false;
+        }
+        return pathMatcher.match(rule.getPath(), path);
+    }
+
+    private String resolveKey(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == RateLimitProperties.KeyType.USER) {
+            String authorizationHeader = request.getHeader("Authorization");
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+                // Unknown, forged or expired tokens share the caller's address bucket
+                Claims claims = jwtUtil.cachedClaims(authorizationHeader.substring(7));
+                String userId = claims != null ? claims.get("userId", String.class) : null;
+                if (userId != null) {
+                    return "u:" + userId;
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many requests, please try again later",
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private record CompiledRule(RateLimitProperties.Rule rule, RateLimiter limiter, Counter allowed, Counter rejected) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.filiup.Filiup.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route rate limit rules, bound from {@code security.rate-limit.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound of tracked clients per rule; idle buckets, then the least limited ones, are dropped when it is reached
+    private int maxKeys = 100000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        // Path pattern, e.g. /api/student/activities/*/submit
+        private String path;
+        // HTTP methods the rule applies to; empty means all
+        private List<String> methods = new ArrayList<>();
+        // Requests allowed in a burst
+        private int capacity;
+        // Sustained requests per minute once the burst is used up
+        private int refillPerMinute;
+        private KeyType key = KeyType.IP;
+    }
+
+    public enum KeyType {
+        // Client address
+        IP,
+        // User ID of an already-verified bearer token, falling back to the client address
+        USER
+    }
+}
@@ -0,0 +1,66 @@
+package com.filiup.Filiup.security;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for one rule, implemented as GCRA: each client bucket is a single
+ * {@link AtomicLong} holding the theoretical arrival time of its next request.
+ */
+class RateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    RateLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+        this.burstWindowNanos = emissionIntervalNanos * Math.max(1, capacity);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 when allowed, otherwise the nanoseconds to wait
+     * before the next request would be allowed.
+     */
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                purge(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + emissionIntervalNanos;
+            long excess = newTat - now - burstWindowNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    private void purge(long now) {
+        // A bucket whose arrival time has passed is full again and can be recreated on demand
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        if (buckets.size() < maxKeys) {
+            return;
+        }
+        // Still full: drop the tenth with the earliest arrival times. Those are the clients closest
+        // to a full bucket, so the throttled ones keep their state and a flood of new keys cannot
+        // reset everyone's limits.
+        long[] arrivals = buckets.values().stream().mapToLong(AtomicLong::get).map(tat -> tat - now).toArray();
+        Arrays.sort(arrivals);
+        long cutoff = arrivals[Math.max(0, arrivals.length / 10 - 1)];
+        buckets.values().removeIf(bucket -> bucket.get() - now <= cutoff);
+    }
+}
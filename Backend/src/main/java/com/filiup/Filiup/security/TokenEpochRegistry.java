@@ -0,0 +1,110 @@
+package com.filiup.Filiup.security;
+
+import com.filiup.Filiup.entity.User;
+import com.filiup.Filiup.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the current token epoch of every user, so the JWT filter can reject
+ * revoked access tokens without a query. Only users whose state differs from the default
+ * (epoch 0, active) are stored; the table is loaded at startup and updated on commit.
+ * Changes committed on other instances are picked up by a periodic reload, so there a
+ * revoked access token stays usable for at most {@code security.token-epochs.reload-interval-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenEpochRegistry {
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentHashMap<UUID, State> states = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void load() {
+        for (User user : userRepository.findWithRevokedTokens()) {
+            put(user.getId(), user.currentTokenEpoch(), Boolean.TRUE.equals(user.getIsActive()));
+        }
+        log.info("Loaded token epochs for {} users", states.size());
+    }
+
+    /**
+     * Re-reads the table to pick up revocations and reactivations committed on other instances.
+     * Entries published locally while the query ran are kept unless the table has a newer epoch.
+     */
+    @Scheduled(initialDelayString = "${security.token-epochs.reload-interval-ms:30000}",
+            fixedDelayString = "${security.token-epochs.reload-interval-ms:30000}")
+    void reload() {
+        Map<UUID, State> before = new HashMap<>(states);
+        Map<UUID, State> stored = new HashMap<>();
+        for (User user : userRepository.findWithRevokedTokens()) {
+            stored.put(user.getId(), new State(user.currentTokenEpoch(), Boolean.TRUE.equals(user.getIsActive())));
+        }
+
+        stored.forEach((userId, state) -> states.compute(userId, (id, current) -> {
+            if (current != before.get(id) && (current == null ? 0 : current.epoch()) >= state.epoch()) {
+                return current;
+            }
+            return state;
+        }));
+        // Back to the default state elsewhere, e.g. reactivated; dropped only if untouched here
+        before.forEach((userId, state) -> {
+            if (!stored.containsKey(userId)) {
+                states.remove(userId, state);
+            }
+        });
+    }
+
+    public boolean isCurrent(UUID userId, int epoch) {
+        State state = states.get(userId);
+        if (state == null) {
+            return epoch == 0;
+        }
+        return state.active() && state.epoch() == epoch;
+    }
+
+    /**
+     * Publishes the user's epoch and active flag once the surrounding transaction commits,
+     * or immediately when there is none.
+     */
+    public void publish(User user) {
+        UUID userId = user.getId();
+        int epoch = user.currentTokenEpoch();
+        boolean active = Boolean.TRUE.equals(user.getIsActive());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(userId, epoch, active);
+                }
+            });
+        } else {
+            put(userId, epoch, active);
+        }
+    }
+
+    private void put(UUID userId, int epoch, boolean active) {
+        states.compute(userId, (id, current) -> {
+            // Commits can complete out of order; never move a user back to an older epoch
+            if (current != null && current.epoch() > epoch) {
+                return current;
+            }
+            return epoch == 0 && active ? null : new State(epoch, active);
+        });
+    }
+
+    private record State(int epoch, boolean active) {
+    }
+}
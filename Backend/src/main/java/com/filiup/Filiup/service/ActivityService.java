@@ -4,6 +4,7 @@ import com.filiup.Filiup.dto.ActivityCreateRequest;
 import com.filiup.Filiup.dto.ActivityResponse;
 import com.filiup.Filiup.entity.*;
 import com.filiup.Filiup.repository.*;
+import com.filiup.Filiup.service.scoring.AnswerKeyCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,8 @@ public class ActivityService {
     private final DragDropCategoryRepository dragDropCategoryRepository;
     private final DragDropItemRepository dragDropItemRepository;
     private final MatchingPairRepository matchingPairRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final CurriculumIndex curriculumIndex;
 
     public List<ActivityResponse> getAllActivities() {
         List<Activity> activities = activityRepository.findAllByOrderByOrderIndexAsc();
@@ -70,6 +73,7 @@ public class ActivityService {
         }
 
         activity = activityRepository.save(activity);
+        curriculumIndex.invalidate();
 
         // Create activity-specific content
         if (request.getContent() != null) {
@@ -108,6 +112,8 @@ public class ActivityService {
 
         // Save the activity (this will cascade to save new content and delete orphaned ones)
         activity = activityRepository.save(activity);
+        answerKeyCache.invalidate(activity.getId());
+        curriculumIndex.invalidate();
 
         log.info("Updated activity: {}", activity.getTitle());
         return convertToResponse(activity);
@@ -118,6 +124,8 @@ public class ActivityService {
                 .orElseThrow(() -> new RuntimeException("Activity not found with id: " + id));
 
         activityRepository.delete(activity);
+        answerKeyCache.invalidate(activity.getId());
+        curriculumIndex.invalidate();
         log.info("Deleted activity: {}", activity.getTitle());
     }
 
@@ -127,6 +135,7 @@ public class ActivityService {
 
         activity.setOrderIndex(newOrderIndex);
         activityRepository.save(activity);
+        curriculumIndex.invalidate();
         log.info("Reordered activity: {} to position {}", activity.getTitle(), newOrderIndex);
     }
 
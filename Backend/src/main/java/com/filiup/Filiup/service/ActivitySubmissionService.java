@@ -0,0 +1,36 @@
+package com.filiup.Filiup.service;
+
+import com.filiup.Filiup.dto.student.ActivitySubmissionResponse;
+import com.filiup.Filiup.dto.student.SubmitActivityRequest;
+import com.filiup.Filiup.service.submission.GroupCommitAttemptWriter;
+import com.filiup.Filiup.service.submission.PreparedSubmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Entry point for single activity submissions. Normally each submission is recorded in its own
+ * transaction; in group-commit mode it is scored in a short transaction and then handed to the
+ * {@link GroupCommitAttemptWriter}, so no connection is held while it waits for its batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivitySubmissionService {
+
+    private final StudentService studentService;
+    private final GroupCommitAttemptWriter groupCommitWriter;
+
+    public ActivitySubmissionResponse submitActivity(UUID studentId, UUID activityId, SubmitActivityRequest request,
+                                                     String idempotencyKey) {
+        if (!groupCommitWriter.isEnabled()) {
+            return studentService.submitActivity(studentId, activityId, request, idempotencyKey);
+        }
+
+        PreparedSubmission prepared = studentService.prepareSubmission(studentId, activityId, request, idempotencyKey);
+        if (!prepared.replayed()) {
+            groupCommitWriter.write(prepared);
+        }
+        return prepared.response();
+    }
+}
@@ -8,6 +8,9 @@ import com.filiup.Filiup.entity.UserRole;
 import com.filiup.Filiup.repository.ActivityLogRepository;
 import com.filiup.Filiup.repository.SectionRepository;
 import com.filiup.Filiup.repository.UserRepository;
+import com.filiup.Filiup.security.TokenEpochRegistry;
+import com.filiup.Filiup.service.leaderboard.SchoolPodium;
+import com.filiup.Filiup.service.leaderboard.SectionLeaderboardIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -27,6 +31,10 @@ public class AdminService {
     private final SectionRepository sectionRepository;
     private final ActivityLogRepository activityLogRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final RefreshTokenService refreshTokenService;
+    private final SectionLeaderboardIndex leaderboardIndex;
+    private final SchoolPodium schoolPodium;
 
     public Map<String, Object> getSystemStats() {
         long totalUsers = userRepository.count();
@@ -98,6 +106,8 @@ public class AdminService {
         }
 
         user = userRepository.save(user);
+        moveSeat(null, seatSectionId(user));
+        leaderboardIndex.invalidate(seatSectionId(user));
         return mapToUserResponse(user);
     }
 
@@ -106,6 +116,9 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        UUID previousSeat = seatSectionId(user);
+        boolean credentialsChanged = false;
+
         // Update email if provided and different from current email
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
             // Check if the new email already exists for another user
@@ -113,6 +126,7 @@ public class AdminService {
                 throw new RuntimeException("Email already exists");
             }
             user.setEmail(request.getEmail());
+            credentialsChanged = true;
         }
 
         user.setFullName(request.getFullName());
@@ -120,10 +134,12 @@ public class AdminService {
         // Update role if provided and different from current role
         if (request.getRole() != null && !request.getRole().equals(user.getRole())) {
             user.setRole(request.getRole());
+            credentialsChanged = true;
         }
         
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+            credentialsChanged = true;
             // If password is changed for a teacher or student, force them to reset it on next login
             if (user.getRole() == UserRole.TEACHER || user.getRole() == UserRole.STUDENT) {
                 user.setFirstLogin(true);
@@ -136,7 +152,19 @@ public class AdminService {
             user.setSection(section);
         }
 
+        if (credentialsChanged) {
+            revokeTokens(user);
+        }
+        moveSeat(previousSeat, seatSectionId(user));
+        // Name or section may have changed
+        leaderboardIndex.invalidate(previousSeat);
+        leaderboardIndex.invalidate(seatSectionId(user));
+        schoolPodium.invalidate(user.getId());
+
         user = userRepository.save(user);
+        if (credentialsChanged) {
+            tokenEpochRegistry.publish(user);
+        }
         return mapToUserResponse(user);
     }
 
@@ -145,8 +173,14 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        UUID previousSeat = seatSectionId(user);
         user.setIsActive(false);
+        revokeTokens(user);
+        moveSeat(previousSeat, seatSectionId(user));
+        leaderboardIndex.invalidate(previousSeat);
+        schoolPodium.invalidate(user.getId());
         userRepository.save(user);
+        tokenEpochRegistry.publish(user);
     }
 
     @Transactional
@@ -154,8 +188,38 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        UUID previousSeat = seatSectionId(user);
         user.setIsActive(true);
+        moveSeat(previousSeat, seatSectionId(user));
+        leaderboardIndex.invalidate(seatSectionId(user));
+        schoolPodium.invalidate(user.getId());
         userRepository.save(user);
+        tokenEpochRegistry.publish(user);
+    }
+
+    // Section whose seat counter includes this user; only active students take seats
+    private UUID seatSectionId(User user) {
+        return user.getRole() == UserRole.STUDENT && Boolean.TRUE.equals(user.getIsActive()) && user.getSection() != null
+                ? user.getSection().getId() : null;
+    }
+
+    // Admin assignments bypass the capacity check but keep the seat counters in step
+    private void moveSeat(UUID fromSectionId, UUID toSectionId) {
+        if (Objects.equals(fromSectionId, toSectionId)) {
+            return;
+        }
+        if (fromSectionId != null) {
+            sectionRepository.adjustEnrolledCount(fromSectionId, -1);
+        }
+        if (toSectionId != null) {
+            sectionRepository.adjustEnrolledCount(toSectionId, 1);
+        }
+    }
+
+    // Invalidates every access and refresh token issued to the user so far
+    private void revokeTokens(User user) {
+        user.setTokenEpoch(user.currentTokenEpoch() + 1);
+        refreshTokenService.revokeAll(user.getId());
     }
 
     private UserResponse mapToUserResponse(User user) {
@@ -3,18 +3,25 @@ package com.filiup.Filiup.service;
 import com.filiup.Filiup.dto.auth.AuthResponse;
 import com.filiup.Filiup.dto.auth.LoginRequest;
 import com.filiup.Filiup.dto.auth.PasswordResetRequest;
+import com.filiup.Filiup.dto.auth.RefreshTokenRequest;
 import com.filiup.Filiup.dto.auth.RegisterRequest;
 import com.filiup.Filiup.dto.user.UserResponse;
 import com.filiup.Filiup.entity.User;
+import com.filiup.Filiup.exception.RefreshTokenRejectedException;
 import com.filiup.Filiup.repository.UserRepository;
 import com.filiup.Filiup.security.JwtUtil;
+import com.filiup.Filiup.security.PasswordHashingBulkhead;
+import com.filiup.Filiup.security.TokenEpochRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.UUID;
 
@@ -26,6 +33,17 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final PasswordHashingBulkhead passwordHashingBulkhead;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -33,9 +51,11 @@ public class AuthService {
             throw new RuntimeException("Email already exists");
         }
 
+        String passwordHash = passwordHashingBulkhead.execute(() -> passwordEncoder.encode(request.getPassword()));
+
         User user = User.builder()
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHash)
                 .fullName(request.getFullName())
                 .role(request.getRole())
                 .isActive(true)
@@ -43,21 +63,16 @@ public class AuthService {
 
         user = userRepository.save(user);
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId().toString());
-        
-        return AuthResponse.builder()
-                .token(token)
-                .refreshToken(token) // For simplicity, using same token
-                .user(mapToUserResponse(user))
-                .build();
+        return buildAuthResponse(user, refreshTokenService.issue(user.getId()));
     }
 
-    @Transactional
+    // Not transactional: a connection should not be held while waiting for the hashing pool
     public AuthResponse login(LoginRequest request) {
         try {
-            authenticationManager.authenticate(
+            // BCrypt verification runs on the hashing pool, not on the request thread
+            passwordHashingBulkhead.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+            ));
         } catch (BadCredentialsException e) {
             throw new RuntimeException("Invalid credentials");
         }
@@ -71,22 +86,40 @@ public class AuthService {
             user = userRepository.save(user);
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId().toString());
+        return buildAuthResponse(user, refreshTokenService.issue(user.getId()));
+    }
 
-        return AuthResponse.builder()
-                .token(token)
-                .refreshToken(token)
-                .user(mapToUserResponse(user))
-                .build();
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token, without
+     * verifying the password again. Rejections keep the transaction committed so the revocations
+     * made while rejecting stick.
+     */
+    @Transactional(noRollbackFor = RefreshTokenRejectedException.class)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            refreshTokenService.revokeAll(user.getId());
+            throw new RefreshTokenRejectedException("Account is deactivated");
+        }
+
+        return buildAuthResponse(user, rotation.refreshToken());
     }
 
-    @Transactional
-    public UserResponse resetPassword(UUID userId, PasswordResetRequest request) {
-        User user = userRepository.findById(userId)
+    /**
+     * Changes the password and revokes every token issued before; the caller gets a fresh
+     * token pair so only their other sessions are signed out. Both BCrypt runs happen before the
+     * write transaction opens, so no connection is held while waiting for the hashing pool.
+     */
+    public AuthResponse resetPassword(UUID userId, PasswordResetRequest request) {
+        User current = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPasswordHash())) {
+        String currentHash = current.getPasswordHash();
+        if (!passwordHashingBulkhead.execute(() -> passwordEncoder.matches(request.getCurrentPassword(), currentHash))) {
             throw new RuntimeException("Current password is incorrect");
         }
 
@@ -95,12 +128,37 @@ public class AuthService {
             throw new RuntimeException("Password confirmation does not match");
         }
 
-        // Update password and mark as no longer first login
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
-        user.setFirstLogin(false);
-        user = userRepository.save(user);
+        String newHash = passwordHashingBulkhead.execute(() -> passwordEncoder.encode(request.getNewPassword()));
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // The check above was made against this hash; a concurrent change must be verified again
+            if (!currentHash.equals(user.getPasswordHash())) {
+                throw new RuntimeException("Password was changed in the meantime, please try again");
+            }
+
+            // Update password and mark as no longer first login
+            user.setPasswordHash(newHash);
+            user.setFirstLogin(false);
+            user.setTokenEpoch(user.currentTokenEpoch() + 1);
+            refreshTokenService.revokeAll(user.getId());
+            user = userRepository.save(user);
+            tokenEpochRegistry.publish(user);
 
-        return mapToUserResponse(user);
+            return buildAuthResponse(user, refreshTokenService.issue(user.getId()));
+        });
+    }
+
+    private AuthResponse buildAuthResponse(User user, String refreshToken) {
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name(), user.getId().toString(),
+                user.getSection() != null ? user.getSection().getId().toString() : null, user.currentTokenEpoch());
+
+        return AuthResponse.builder()
+                .token(token)
+                .refreshToken(refreshToken)
+                .user(mapToUserResponse(user))
+                .build();
     }
 
     private UserResponse mapToUserResponse(User user) {
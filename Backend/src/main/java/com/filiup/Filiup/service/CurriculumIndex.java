@@ -0,0 +1,170 @@
+package com.filiup.Filiup.service;
+
+import com.filiup.Filiup.entity.ActivityType;
+import com.filiup.Filiup.repository.ActivityRepository;
+import com.filiup.Filiup.repository.LessonRepository;
+import com.filiup.Filiup.repository.PhaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed successor of every activity in curriculum order (phase, lesson, activity order
+ * index): the next activity of the same lesson, or at a lesson's end the next lesson, which
+ * may start a new phase. Built from three narrow queries on first use and rebuilt lazily after
+ * ordering changes; a maximum age also picks up changes made on other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CurriculumIndex {
+
+    private final PhaseRepository phaseRepository;
+    private final LessonRepository lessonRepository;
+    private final ActivityRepository activityRepository;
+
+    @Value("${curriculum.index.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public record ActivityStep(UUID id, ActivityType type) {
+    }
+
+    public record LessonStep(UUID id, String title, UUID phaseId, String phaseTitle, boolean newPhase) {
+    }
+
+    /** Exactly one of the steps is set, or neither at the end of the curriculum. */
+    public record Successor(ActivityStep activity, LessonStep lesson) {
+        public static final Successor NONE = new Successor(null, null);
+    }
+
+    public Successor successorOf(UUID activityId) {
+        Snapshot current = snapshot;
+        if (current == null || current.isOlderThan(maxAgeSeconds)) {
+            current = rebuild();
+        }
+        return current.successors().getOrDefault(activityId, Successor.NONE);
+    }
+
+    /**
+     * Drops the index once the current transaction completes, so the next lookup rebuilds it
+     * from the committed ordering.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    snapshot = null;
+                }
+            });
+        }
+    }
+
+    private synchronized Snapshot rebuild() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isOlderThan(maxAgeSeconds)) {
+            return current;
+        }
+        long startGeneration = generation.get();
+        Snapshot built = build();
+        // An invalidation during the build may mean it read the old ordering: use it once, don't keep it
+        if (generation.get() == startGeneration) {
+            snapshot = built;
+        }
+        return built;
+    }
+
+    private Snapshot build() {
+        Map<UUID, PhaseRow> phases = new HashMap<>();
+        for (Object[] row : phaseRepository.findOutline()) {
+            PhaseRow phase = new PhaseRow((UUID) row[0], (String) row[1], orderOf(row[2]));
+            phases.put(phase.id(), phase);
+        }
+
+        List<LessonRow> lessons = new ArrayList<>();
+        for (Object[] row : lessonRepository.findOutline()) {
+            lessons.add(new LessonRow((UUID) row[0], phases.get((UUID) row[1]), (String) row[2], orderOf(row[3])));
+        }
+        // Lessons without a phase come after every phase
+        lessons.sort(Comparator
+                .comparing((LessonRow lesson) -> lesson.phase() == null)
+                .thenComparingInt(lesson -> lesson.phase() != null ? lesson.phase().orderIndex() : 0)
+                .thenComparing(lesson -> lesson.phase() != null ? lesson.phase().id() : null,
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(LessonRow::orderIndex)
+                .thenComparing(LessonRow::id));
+
+        Map<UUID, List<ActivityRow>> activitiesByLesson = new HashMap<>();
+        for (Object[] row : activityRepository.findOutline()) {
+            if (row[1] != null) {
+                activitiesByLesson.computeIfAbsent((UUID) row[1], id -> new ArrayList<>())
+                        .add(new ActivityRow((UUID) row[0], (ActivityType) row[2], orderOf(row[3])));
+            }
+        }
+
+        Map<UUID, Successor> successors = new HashMap<>();
+        for (int i = 0; i < lessons.size(); i++) {
+            LessonRow lesson = lessons.get(i);
+            List<ActivityRow> activities = activitiesByLesson.getOrDefault(lesson.id(), List.of());
+            activities.sort(Comparator.comparingInt(ActivityRow::orderIndex).thenComparing(ActivityRow::id));
+
+            for (int a = 0; a < activities.size() - 1; a++) {
+                ActivityRow next = activities.get(a + 1);
+                successors.put(activities.get(a).id(), new Successor(new ActivityStep(next.id(), next.type()), null));
+            }
+            if (!activities.isEmpty()) {
+                successors.put(activities.get(activities.size() - 1).id(),
+                        i + 1 < lessons.size() ? new Successor(null, lessonStep(lesson, lessons.get(i + 1))) : Successor.NONE);
+            }
+        }
+
+        log.debug("Built curriculum index: {} phases, {} lessons, {} activities",
+                phases.size(), lessons.size(), successors.size());
+        return new Snapshot(successors, System.nanoTime());
+    }
+
+    private static LessonStep lessonStep(LessonRow current, LessonRow next) {
+        PhaseRow phase = next.phase();
+        boolean newPhase = !Objects.equals(current.phase(), phase);
+        return new LessonStep(next.id(), next.title(),
+                phase != null ? phase.id() : null, phase != null ? phase.title() : null, newPhase);
+    }
+
+    private static int orderOf(Object orderIndex) {
+        return orderIndex != null ? (Integer) orderIndex : Integer.MAX_VALUE;
+    }
+
+    private record Snapshot(Map<UUID, Successor> successors, long builtAtNanos) {
+        boolean isOlderThan(long seconds) {
+            return System.nanoTime() - builtAtNanos > TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+
+    private record PhaseRow(UUID id, String title, int orderIndex) {
+    }
+
+    private record LessonRow(UUID id, PhaseRow phase, String title, int orderIndex) {
+    }
+
+    private record ActivityRow(UUID id, ActivityType type, int orderIndex) {
+    }
+}
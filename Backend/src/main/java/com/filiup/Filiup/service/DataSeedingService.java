@@ -24,6 +24,7 @@ public class DataSeedingService implements CommandLineRunner {
     private final DragDropItemRepository dragDropItemRepository;
     private final DragDropCategoryRepository dragDropCategoryRepository;
     private final MatchingPairRepository matchingPairRepository;
+    private final CurriculumIndex curriculumIndex;
 
     @Override
     @Transactional
@@ -31,6 +32,7 @@ public class DataSeedingService implements CommandLineRunner {
         if (phaseRepository.count() == 0) {
             log.info("Seeding database with initial FiliUp content...");
             seedDatabase();
+            curriculumIndex.invalidate();
             log.info("Database seeding completed!");
         } else {
             log.info("Database already seeded. Skipping data seeding.");
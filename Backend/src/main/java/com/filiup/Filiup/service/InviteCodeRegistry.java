@@ -0,0 +1,137 @@
+package com.filiup.Filiup.service;
+
+import com.filiup.Filiup.entity.Section;
+import com.filiup.Filiup.repository.SectionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory index of the invite codes of active sections, plus a pool of pre-generated codes that
+ * are known not to collide with any existing code, so creating a section never loops on the
+ * database. A section that was deleted, deactivated or given a new code must be {@link #evict evicted}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InviteCodeRegistry {
+
+    private static final String CODE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int CODE_LENGTH = 8;
+
+    private final SectionRepository sectionRepository;
+
+    @Value("${sections.invite-code.pool-size:64}")
+    private int poolSize;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ConcurrentHashMap<String, UUID> sectionsByCode = new ConcurrentHashMap<>();
+    // Pooled and handed-out codes not yet registered, so they are never generated twice
+    private final ConcurrentHashMap<String, Boolean> reservedCodes = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> pool = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    void load() {
+        for (Section section : sectionRepository.findAll()) {
+            if (Boolean.TRUE.equals(section.getIsActive())) {
+                sectionsByCode.put(section.getInviteCode(), section.getId());
+            }
+        }
+        refill();
+        log.info("Indexed {} section invite codes", sectionsByCode.size());
+    }
+
+    /**
+     * Resolves an invite code. Codes created on another instance are not indexed yet, so a
+     * miss falls back to the database.
+     */
+    public Optional<UUID> resolve(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        String normalized = code.trim().toUpperCase(Locale.ROOT);
+        UUID sectionId = sectionsByCode.get(normalized);
+        if (sectionId != null) {
+            return Optional.of(sectionId);
+        }
+        return sectionRepository.findByInviteCode(normalized)
+                .filter(section -> Boolean.TRUE.equals(section.getIsActive()))
+                .map(section -> {
+            sectionsByCode.put(normalized, section.getId());
+            return section.getId();
+        });
+    }
+
+    /**
+     * Stops resolving the code, e.g. when its section turned out to be gone or inactive. Codes
+     * of other sections keep resolving from the index.
+     */
+    public void evict(String code, UUID sectionId) {
+        if (code != null) {
+            sectionsByCode.remove(code.trim().toUpperCase(Locale.ROOT), sectionId);
+        }
+    }
+
+    public String allocate() {
+        String code = pool.poll();
+        if (code == null) {
+            refill();
+            code = pool.poll();
+        }
+        if (pool.size() < poolSize / 4) {
+            refill();
+        }
+        return code != null ? code : newUniqueCode();
+    }
+
+    /**
+     * Indexes the code of a new section once the transaction that inserts it commits; if it
+     * rolls back the code is simply dropped.
+     */
+    public void register(String code, UUID sectionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        sectionsByCode.put(code, sectionId);
+                    }
+                    reservedCodes.remove(code);
+                }
+            });
+        } else {
+            sectionsByCode.put(code, sectionId);
+            reservedCodes.remove(code);
+        }
+    }
+
+    private void refill() {
+        while (pool.size() < poolSize) {
+            pool.add(newUniqueCode());
+        }
+    }
+
+    private String newUniqueCode() {
+        while (true) {
+            StringBuilder code = new StringBuilder(CODE_LENGTH);
+            for (int i = 0; i < CODE_LENGTH; i++) {
+                code.append(CODE_ALPHABET.charAt(secureRandom.nextInt(CODE_ALPHABET.length())));
+            }
+            String candidate = code.toString();
+            if (!sectionsByCode.containsKey(candidate) && reservedCodes.putIfAbsent(candidate, Boolean.TRUE) == null) {
+                return candidate;
+            }
+        }
+    }
+}
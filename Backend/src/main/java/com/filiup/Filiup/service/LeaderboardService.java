@@ -0,0 +1,191 @@
+package com.filiup.Filiup.service;
+
+import com.filiup.Filiup.dto.leaderboard.SchoolLeaderboardResponse;
+import com.filiup.Filiup.dto.leaderboard.StudentRankingDTO;
+import com.filiup.Filiup.dto.teacher.SectionLeaderboardResponse;
+import com.filiup.Filiup.dto.teacher.StudentRankingResponse;
+import com.filiup.Filiup.entity.Section;
+import com.filiup.Filiup.repository.StudentScoreBucketRepository;
+import com.filiup.Filiup.repository.StudentScoreTotalRepository;
+import com.filiup.Filiup.service.leaderboard.LeaderboardPeriod;
+import com.filiup.Filiup.service.leaderboard.SchoolLeaderboardCursor;
+import com.filiup.Filiup.service.leaderboard.SchoolPodium;
+import com.filiup.Filiup.service.leaderboard.SchoolStanding;
+import com.filiup.Filiup.service.leaderboard.SectionLeaderboardIndex;
+import com.filiup.Filiup.service.leaderboard.StudentStanding;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+/**
+ * Section leaderboards for teachers, students and the student dashboard, and the school-wide
+ * leaderboard. Section standings come from the {@link SectionLeaderboardIndex}; the school
+ * leaderboard pages through {@code student_score_totals} with keyset cursors and keeps its
+ * podium in the {@link SchoolPodium}. Weekly and monthly section leaderboards rank by the points
+ * gained in the period, summed from the per-day {@code student_score_buckets}. Students with the
+ * same total share a rank, as SQL {@code RANK()} would assign it (1, 2, 2, 4).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private final SectionLeaderboardIndex leaderboardIndex;
+    private final SchoolPodium schoolPodium;
+    private final StudentScoreTotalRepository totalRepository;
+    private final StudentScoreBucketRepository bucketRepository;
+
+    @Value("${leaderboard.school.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${leaderboard.school.max-page-size:100}")
+    private int maxPageSize;
+
+    // Day buckets older than this are dropped; all-time totals live in student_score_totals
+    @Value("${leaderboard.buckets.retention-days:120}")
+    private int bucketRetentionDays;
+
+    public SectionLeaderboardResponse getSectionLeaderboard(Section section, LeaderboardPeriod period) {
+        return SectionLeaderboardResponse.builder()
+                .sectionId(section.getId())
+                .sectionName(section.getName())
+                .gradeLevel(section.getGradeLevel())
+                .students(getRankings(section.getId(), period))
+                .build();
+    }
+
+    // Rank only, without building the section's leaderboard
+    public Integer getRank(UUID sectionId, UUID studentId) {
+        OptionalInt rank = leaderboardIndex.rankOf(sectionId, studentId);
+        return rank.isPresent() ? rank.getAsInt() : null;
+    }
+
+    public List<StudentRankingResponse> getRankings(UUID sectionId, LeaderboardPeriod period) {
+        List<StudentStanding> standings = leaderboardIndex.standings(sectionId);
+        if (period != LeaderboardPeriod.ALL_TIME) {
+            standings = inPeriod(sectionId, standings, period);
+        }
+        List<StudentRankingResponse> rankings = new ArrayList<>(standings.size());
+        int rank = 0;
+        for (int i = 0; i < standings.size(); i++) {
+            StudentStanding standing = standings.get(i);
+            if (i == 0 || standing.totalScore() != standings.get(i - 1).totalScore()) {
+                rank = i + 1;
+            }
+            rankings.add(StudentRankingResponse.builder()
+                    .id(standing.studentId())
+                    .name(standing.name())
+                    .totalScore(standing.totalScore())
+                    .lessonsCompleted(standing.lessonsCompleted())
+                    .activitiesCompleted(standing.activitiesCompleted())
+                    .averageScore(standing.averageScore())
+                    .rank(rank)
+                    .build());
+        }
+        return rankings;
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.buckets.purge-interval-ms:86400000}")
+    public void purgeOldBuckets() {
+        int deleted = bucketRepository.deleteOlderThan(LocalDate.now().minusDays(bucketRetentionDays));
+        if (deleted > 0) {
+            log.debug("Purged {} score buckets older than {} days", deleted, bucketRetentionDays);
+        }
+    }
+
+    /**
+     * One page of the school leaderboard: the first page without a cursor, then the page after
+     * the given cursor. Only the requested rows are read, however deep the page.
+     */
+    public SchoolLeaderboardResponse getSchoolLeaderboard(String cursor, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+
+        List<Object[]> rows;
+        List<StudentRankingDTO> podium = null;
+        int rank = 0;
+        int position = 0;
+        Integer previousScore = null;
+        if (cursor == null || cursor.isBlank()) {
+            rows = totalRepository.findTop(pageSize);
+            // A page covering the podium already holds it, read in the same query as the rows
+            podium = toSchoolRankings(rows.size() < pageSize || pageSize >= schoolPodium.size()
+                    ? rows.stream().limit(schoolPodium.size()).map(SchoolStanding::fromRow).toList()
+                    : schoolPodium.podium());
+        } else {
+            SchoolLeaderboardCursor after = SchoolLeaderboardCursor.decode(cursor);
+            rows = totalRepository.findAfter(after.totalScore(), after.studentId(), pageSize);
+            rank = after.rank();
+            position = after.position();
+            previousScore = after.totalScore();
+        }
+
+        List<StudentRankingDTO> rankings = new ArrayList<>(rows.size());
+        SchoolStanding last = null;
+        for (Object[] row : rows) {
+            SchoolStanding standing = SchoolStanding.fromRow(row);
+            position++;
+            if (previousScore == null || standing.totalScore() != previousScore) {
+                rank = position;
+            }
+            rankings.add(toSchoolRanking(standing, rank));
+            previousScore = standing.totalScore();
+            last = standing;
+        }
+
+        return SchoolLeaderboardResponse.builder()
+                .podium(podium)
+                .rankings(rankings)
+                .nextCursor(rows.size() == pageSize ? SchoolLeaderboardCursor.after(last, rank, position).encode() : null)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+
+    // The same students scored by the points gained in the period: one sum over at most a month of days
+    private List<StudentStanding> inPeriod(UUID sectionId, List<StudentStanding> standings, LeaderboardPeriod period) {
+        Map<UUID, Integer> points = new HashMap<>();
+        for (Object[] row : bucketRepository.sumSectionScoresSince(sectionId, period.startOn(LocalDate.now()))) {
+            points.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+
+        List<StudentStanding> scored = new ArrayList<>(standings.size());
+        for (StudentStanding standing : standings) {
+            scored.add(standing.withTotalScore(points.getOrDefault(standing.studentId(), 0)));
+        }
+        scored.sort(StudentStanding.LEADERBOARD_ORDER);
+        return scored;
+    }
+
+    private static List<StudentRankingDTO> toSchoolRankings(List<SchoolStanding> standings) {
+        List<StudentRankingDTO> rankings = new ArrayList<>(standings.size());
+        int rank = 0;
+        for (int i = 0; i < standings.size(); i++) {
+            if (i == 0 || standings.get(i).totalScore() != standings.get(i - 1).totalScore()) {
+                rank = i + 1;
+            }
+            rankings.add(toSchoolRanking(standings.get(i), rank));
+        }
+        return rankings;
+    }
+
+    private static StudentRankingDTO toSchoolRanking(SchoolStanding standing, int rank) {
+        return StudentRankingDTO.builder()
+                .studentId(standing.studentId().toString())
+                .studentName(standing.name())
+                .sectionName(standing.sectionName())
+                .totalScore(standing.totalScore())
+                .completedActivities(standing.activitiesCompleted())
+                .rank(rank)
+                .build();
+    }
+}
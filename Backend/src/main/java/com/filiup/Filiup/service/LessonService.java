@@ -4,6 +4,7 @@ import com.filiup.Filiup.dto.LessonCreateRequest;
 import com.filiup.Filiup.dto.LessonResponse;
 import com.filiup.Filiup.entity.*;
 import com.filiup.Filiup.repository.*;
+import com.filiup.Filiup.service.scoring.AnswerKeyCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,10 +26,11 @@ public class LessonService {
     private final StudentLessonProgressRepository progressRepository;
     private final StudentActivityAttemptRepository attemptRepository;
     private final UserRepository userRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final CurriculumIndex curriculumIndex;
 
     public List<Map<String, Object>> getLessonsWithProgress(UUID studentId) {
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
+        User student = userRepository.getReferenceById(studentId);
 
         List<Phase> phases = phaseRepository.findAllByOrderByOrderIndexAsc();
         List<Map<String, Object>> result = new ArrayList<>();
@@ -153,6 +155,7 @@ public class LessonService {
         }
 
         lesson = lessonRepository.save(lesson);
+        curriculumIndex.invalidate();
 
         // Create slides
         if (request.getSlides() != null && !request.getSlides().isEmpty()) {
@@ -201,6 +204,7 @@ public class LessonService {
 
         // Save the lesson (this will cascade to save new slides and delete orphaned ones)
         lesson = lessonRepository.save(lesson);
+        curriculumIndex.invalidate();
 
         log.info("Updated lesson: {}", lesson.getTitle());
         return convertToResponse(lesson);
@@ -211,6 +215,9 @@ public class LessonService {
                 .orElseThrow(() -> new RuntimeException("Lesson not found with id: " + id));
 
         lessonRepository.delete(lesson);
+        // The lesson's activities are deleted with it
+        answerKeyCache.invalidateAll();
+        curriculumIndex.invalidate();
         log.info("Deleted lesson: {}", lesson.getTitle());
     }
 
@@ -232,6 +239,7 @@ public class LessonService {
 
         lesson.setOrderIndex(newOrderIndex);
         lessonRepository.save(lesson);
+        curriculumIndex.invalidate();
         log.info("Reordered lesson: {} to position {}", lesson.getTitle(), newOrderIndex);
     }
 
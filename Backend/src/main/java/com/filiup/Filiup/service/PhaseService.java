@@ -3,6 +3,7 @@ package com.filiup.Filiup.service;
 import com.filiup.Filiup.dto.PhaseResponse;
 import com.filiup.Filiup.entity.Phase;
 import com.filiup.Filiup.repository.PhaseRepository;
+import com.filiup.Filiup.service.scoring.AnswerKeyCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,8 @@ import java.util.stream.Collectors;
 public class PhaseService {
 
     private final PhaseRepository phaseRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final CurriculumIndex curriculumIndex;
 
     public List<Phase> getAllPhases() {
         return phaseRepository.findAllByOrderByOrderIndexAsc();
@@ -50,6 +53,7 @@ public class PhaseService {
         }
         
         log.info("Creating new phase: {}", phase.getTitle());
+        curriculumIndex.invalidate();
         return phaseRepository.save(phase);
     }
 
@@ -70,6 +74,7 @@ public class PhaseService {
         existingPhase.setOrderIndex(phaseDetails.getOrderIndex());
         
         log.info("Updating phase: {}", existingPhase.getTitle());
+        curriculumIndex.invalidate();
         return phaseRepository.save(existingPhase);
     }
 
@@ -82,6 +87,9 @@ public class PhaseService {
         Integer orderIndex = phase.getOrderIndex();
         
         phaseRepository.delete(phase);
+        // Lessons and activities of the phase are deleted with it
+        answerKeyCache.invalidateAll();
+        curriculumIndex.invalidate();
         
         // Shift remaining phases backward
         shiftPhasesBackward(orderIndex);
@@ -112,6 +120,7 @@ public class PhaseService {
         
         phase.setOrderIndex(newOrderIndex);
         phaseRepository.save(phase);
+        curriculumIndex.invalidate();
         
         log.info("Reordered phase {} from position {} to {}", phase.getTitle(), oldOrderIndex, newOrderIndex);
     }
@@ -0,0 +1,175 @@
+package com.filiup.Filiup.service;
+
+import com.filiup.Filiup.entity.RefreshToken;
+import com.filiup.Filiup.entity.User;
+import com.filiup.Filiup.exception.RefreshTokenRejectedException;
+import com.filiup.Filiup.repository.RefreshTokenRepository;
+import com.filiup.Filiup.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 of each token is stored; live tokens
+ * are also kept in an in-memory index so a refresh normally needs no lookup query. The index is
+ * only changed once the transaction that changed the table has committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Value("${jwt.refresh.expiration}")
+    private Long refreshExpiration;
+
+    @Value("${jwt.refresh.index-max-size:50000}")
+    private int indexMaxSize;
+
+    // Revoked tokens are kept this long so a replay is still detected as reuse; then they are purged
+    @Value("${jwt.refresh.revoked-retention-ms:86400000}")
+    private long revokedRetentionMillis;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ConcurrentHashMap<String, IndexEntry> index = new ConcurrentHashMap<>();
+
+    @Transactional
+    public String issue(UUID userId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String tokenHash = hash(rawToken);
+        long expiresAt = System.currentTimeMillis() + refreshExpiration;
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .user(userRepository.getReferenceById(userId))
+                .tokenHash(tokenHash)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault()))
+                .revoked(false)
+                .build();
+        refreshToken = refreshTokenRepository.save(refreshToken);
+
+        IndexEntry entry = new IndexEntry(refreshToken.getId(), userId, expiresAt);
+        afterCommit(() -> addToIndex(tokenHash, entry));
+        return rawToken;
+    }
+
+    /**
+     * Consumes a refresh token and issues its replacement. Presenting a token that was already
+     * rotated is treated as theft and revokes every refresh token of the user; that revocation
+     * commits even though the caller gets a {@link RefreshTokenRejectedException}.
+     */
+    @Transactional(noRollbackFor = RefreshTokenRejectedException.class)
+    public Rotation rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        IndexEntry entry = index.get(tokenHash);
+
+        if (entry == null) {
+            // Not indexed on this node (restart or other instance): fall back to the table
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+            User user = stored.getUser();
+            if (stored.getRevoked()) {
+                revokeAll(user.getId());
+                log.warn("Revoked refresh token reused for user {}", user.getId());
+                throw new RefreshTokenRejectedException("Refresh token has been revoked");
+            }
+            entry = new IndexEntry(stored.getId(), user.getId(),
+                    stored.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        afterCommit(() -> index.remove(tokenHash));
+
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            refreshTokenRepository.revokeIfActive(entry.tokenId());
+            throw new RefreshTokenRejectedException("Refresh token has expired");
+        }
+
+        if (refreshTokenRepository.revokeIfActive(entry.tokenId()) == 0) {
+            // Someone else rotated this token first
+            revokeAll(entry.userId());
+            log.warn("Concurrent reuse of refresh token for user {}", entry.userId());
+            throw new RefreshTokenRejectedException("Refresh token has been revoked");
+        }
+
+        return new Rotation(entry.userId(), issue(entry.userId()));
+    }
+
+    @Transactional
+    public void revokeAll(UUID userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+        afterCommit(() -> index.values().removeIf(e -> e.userId().equals(userId)));
+    }
+
+    // Runs the index change once the table change is committed; dropped on rollback
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public void purgeStale() {
+        long nowMillis = System.currentTimeMillis();
+        index.values().removeIf(e -> e.expiresAt() <= nowMillis);
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = refreshTokenRepository.deleteStale(now, now.minus(revokedRetentionMillis, ChronoUnit.MILLIS));
+        if (deleted > 0) {
+            log.debug("Purged {} expired or revoked refresh tokens", deleted);
+        }
+    }
+
+    private void addToIndex(String tokenHash, IndexEntry entry) {
+        if (index.size() >= indexMaxSize) {
+            long now = System.currentTimeMillis();
+            index.values().removeIf(e -> e.expiresAt() <= now);
+            if (index.size() >= indexMaxSize) {
+                // Still full: leave this token to the database path
+                return;
+            }
+        }
+        index.put(tokenHash, entry);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Rotation(UUID userId, String refreshToken) {
+    }
+
+    private record IndexEntry(UUID tokenId, UUID userId, long expiresAt) {
+    }
+}
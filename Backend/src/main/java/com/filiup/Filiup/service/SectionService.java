@@ -11,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,13 +20,14 @@ public class SectionService {
 
     private final SectionRepository sectionRepository;
     private final UserRepository userRepository;
+    private final InviteCodeRegistry inviteCodeRegistry;
 
     @Transactional
     public SectionResponse createSection(CreateSectionRequest request, UUID teacherId) {
         User teacher = userRepository.findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
 
-        String inviteCode = generateUniqueInviteCode();
+        String inviteCode = inviteCodeRegistry.allocate();
 
         Section section = Section.builder()
                 .name(request.getName())
@@ -39,6 +39,7 @@ public class SectionService {
                 .build();
 
         section = sectionRepository.save(section);
+        inviteCodeRegistry.register(inviteCode, section.getId());
         return mapToSectionResponse(section);
     }
 
@@ -57,24 +58,6 @@ public class SectionService {
         return mapToSectionResponse(section);
     }
 
-    private String generateUniqueInviteCode() {
-        String code;
-        do {
-            code = generateRandomCode();
-        } while (sectionRepository.existsByInviteCode(code));
-        return code;
-    }
-
-    private String generateRandomCode() {
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        Random random = new Random();
-        StringBuilder code = new StringBuilder();
-        for (int i = 0; i < 8; i++) {
-            code.append(chars.charAt(random.nextInt(chars.length())));
-        }
-        return code.toString();
-    }
-
     private SectionResponse mapToSectionResponse(Section section) {
         long activeStudents = section.getStudents().stream()
                 .filter(User::getIsActive)
@@ -22,8 +22,9 @@ public class StudentDashboardService {
     private final LessonRepository lessonRepository;
     private final ActivityRepository activityRepository;
     private final StudentLessonProgressRepository studentLessonProgressRepository;
-    private final StudentActivityAttemptRepository studentActivityAttemptRepository;
+    private final StudentBestAttemptRepository bestAttemptRepository;
     private final UserRepository userRepository;
+    private final LeaderboardService leaderboardService;
 
     public StudentDashboardResponse getStudentDashboard(UUID studentId) {
         // Get student info
@@ -42,10 +43,10 @@ public class StudentDashboardService {
                 ));
 
         // Get student's activity attempts (best attempts only for consistency with leaderboard)
-        List<StudentActivityAttempt> bestAttempts = 
-            studentActivityAttemptRepository.findBestAttemptsByStudentId(studentId);
+        List<StudentBestAttempt> bestAttempts = 
+            bestAttemptRepository.findByStudentId(studentId);
         
-        Map<UUID, StudentActivityAttempt> activityAttemptsMap = bestAttempts.stream()
+        Map<UUID, StudentBestAttempt> activityAttemptsMap = bestAttempts.stream()
                 .collect(Collectors.toMap(
                     attempt -> attempt.getActivity().getId(),
                     attempt -> attempt
@@ -66,7 +67,7 @@ public class StudentDashboardService {
 
     private PhaseResponse mapToPhaseResponse(Phase phase, 
                                           Map<UUID, StudentLessonProgress> lessonProgressMap,
-                                          Map<UUID, StudentActivityAttempt> activityAttemptsMap,
+                                          Map<UUID, StudentBestAttempt> activityAttemptsMap,
                                           UUID studentId) {
         // Check if phase is unlocked
         boolean isPhaseUnlocked = isPhaseUnlocked(phase, lessonProgressMap, activityAttemptsMap);
@@ -99,7 +100,7 @@ public class StudentDashboardService {
 
     private LessonProgressResponse mapToLessonProgressResponse(Lesson lesson,
                                                              Map<UUID, StudentLessonProgress> lessonProgressMap,
-                                                             Map<UUID, StudentActivityAttempt> activityAttemptsMap,
+                                                             Map<UUID, StudentBestAttempt> activityAttemptsMap,
                                                              UUID studentId,
                                                              Phase phase,
                                                              boolean isPhaseUnlocked) {
@@ -139,10 +140,10 @@ public class StudentDashboardService {
     }
 
     private ActivityProgressResponse mapToActivityProgressResponse(Activity activity,
-                                                                 Map<UUID, StudentActivityAttempt> activityAttemptsMap,
+                                                                 Map<UUID, StudentBestAttempt> activityAttemptsMap,
                                                                  StudentLessonProgress lessonProgress,
                                                                  Lesson lesson) {
-        StudentActivityAttempt attempt = activityAttemptsMap.get(activity.getId());
+        StudentBestAttempt attempt = activityAttemptsMap.get(activity.getId());
         
         boolean isCompleted = attempt != null && attempt.getPercentage().compareTo(BigDecimal.valueOf(75)) >= 0;
         boolean isUnlocked = isActivityUnlocked(activity, lessonProgress, activityAttemptsMap, lesson);
@@ -164,7 +165,7 @@ public class StudentDashboardService {
 
     private boolean isActivityUnlocked(Activity activity, 
                                      StudentLessonProgress lessonProgress,
-                                     Map<UUID, StudentActivityAttempt> activityAttemptsMap,
+                                     Map<UUID, StudentBestAttempt> activityAttemptsMap,
                                      Lesson lesson) {
         // Lesson must be completed first
         if (lessonProgress == null || !lessonProgress.getIsCompleted()) {
@@ -185,7 +186,7 @@ public class StudentDashboardService {
         if (currentIndex <= 0) return true;
 
         Activity previousActivity = activities.get(currentIndex - 1);
-        StudentActivityAttempt previousAttempt = activityAttemptsMap.get(previousActivity.getId());
+        StudentBestAttempt previousAttempt = activityAttemptsMap.get(previousActivity.getId());
         
         return previousAttempt != null && 
                previousAttempt.getPercentage().compareTo(BigDecimal.valueOf(75)) >= 0;
@@ -203,7 +204,7 @@ public class StudentDashboardService {
      */
     private boolean isPhaseUnlocked(Phase phase, 
                                    Map<UUID, StudentLessonProgress> lessonProgressMap,
-                                   Map<UUID, StudentActivityAttempt> activityAttemptsMap) {
+                                   Map<UUID, StudentBestAttempt> activityAttemptsMap) {
         // First phase is always unlocked
         if (phase.getOrderIndex() == 1) {
             return true;
@@ -222,7 +223,7 @@ public class StudentDashboardService {
             // Check if ALL activities in ALL lessons of this previous phase are completed
             for (Lesson lesson : previousPhase.getLessons()) {
                 for (Activity activity : lesson.getActivities()) {
-                    StudentActivityAttempt attempt = activityAttemptsMap.get(activity.getId());
+                    StudentBestAttempt attempt = activityAttemptsMap.get(activity.getId());
                     // Activity must be completed with >= 75%
                     if (attempt == null || attempt.getPercentage().compareTo(BigDecimal.valueOf(75)) < 0) {
                         return false; // Found an incomplete activity in a previous phase
@@ -242,7 +243,7 @@ public class StudentDashboardService {
     private boolean isLessonUnlocked(Lesson lesson,
                                     Phase phase,
                                     Map<UUID, StudentLessonProgress> lessonProgressMap,
-                                    Map<UUID, StudentActivityAttempt> activityAttemptsMap,
+                                    Map<UUID, StudentBestAttempt> activityAttemptsMap,
                                     boolean isPhaseUnlocked) {
         // If phase is locked, all lessons in it are locked
         if (!isPhaseUnlocked) {
@@ -269,7 +270,7 @@ public class StudentDashboardService {
 
         // Check if ALL activities in the previous lesson are completed
         for (Activity activity : previousLesson.getActivities()) {
-            StudentActivityAttempt attempt = activityAttemptsMap.get(activity.getId());
+            StudentBestAttempt attempt = activityAttemptsMap.get(activity.getId());
             // Activity must be completed with >= 75%
             if (attempt == null || attempt.getPercentage().compareTo(BigDecimal.valueOf(75)) < 0) {
                 return false;
@@ -297,17 +298,17 @@ public class StudentDashboardService {
     private StudentStatsResponse calculateStudentStats(User student,
                                                      List<Phase> phases,
                                                      Map<UUID, StudentLessonProgress> lessonProgressMap,
-                                                     Map<UUID, StudentActivityAttempt> activityAttemptsMap) {
+                                                     Map<UUID, StudentBestAttempt> activityAttemptsMap) {
         int completedLessons = (int) lessonProgressMap.values().stream()
                 .filter(StudentLessonProgress::getIsCompleted)
                 .count();
 
         int totalPoints = activityAttemptsMap.values().stream()
-                .mapToInt(StudentActivityAttempt::getScore)
+                .mapToInt(StudentBestAttempt::getScore)
                 .sum();
 
         // Calculate current rank in section leaderboard
-        Integer currentRank = calculateCurrentRank(student, totalPoints);
+        Integer currentRank = calculateCurrentRank(student);
         
         // Calculate current phase based on progress
         String currentPhase = calculateCurrentPhase(phases, lessonProgressMap);
@@ -329,38 +330,13 @@ public class StudentDashboardService {
                 .build();
     }
     
-    private Integer calculateCurrentRank(User student, int studentTotalScore) {
+    private Integer calculateCurrentRank(User student) {
         // If student has no section, return null
         if (student.getSection() == null) {
             return null;
         }
-        
-        // Get all students in the same section
-        List<User> sectionStudents = student.getSection().getStudents();
-        
-        // Calculate scores for all students and sort
-        List<Integer> scores = sectionStudents.stream()
-                .map(s -> {
-                    List<StudentActivityAttempt> bestAttempts = 
-                        studentActivityAttemptRepository.findBestAttemptsByStudentId(s.getId());
-                    return bestAttempts.stream()
-                            .mapToInt(attempt -> attempt.getScore() != null ? attempt.getScore() : 0)
-                            .sum();
-                })
-                .sorted((a, b) -> Integer.compare(b, a)) // Sort descending
-                .collect(Collectors.toList());
-        
-        // Find rank (1-indexed)
-        int rank = 1;
-        for (int score : scores) {
-            if (score > studentTotalScore) {
-                rank++;
-            } else {
-                break;
-            }
-        }
-        
-        return rank;
+
+        return leaderboardService.getRank(student.getSection().getId(), student.getId());
     }
     
     private String calculateCurrentPhase(List<Phase> phases, Map<UUID, StudentLessonProgress> lessonProgressMap) {
@@ -1,26 +1,45 @@
 package com.filiup.Filiup.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.filiup.Filiup.dto.student.ActivitySubmissionResponse;
+import com.filiup.Filiup.dto.student.BatchSubmissionResponse;
+import com.filiup.Filiup.dto.student.BatchSubmitActivityRequest;
 import com.filiup.Filiup.dto.student.ProfileResponse;
 import com.filiup.Filiup.dto.student.RegisterSectionRequest;
 import com.filiup.Filiup.dto.student.SubmitActivityRequest;
 import com.filiup.Filiup.dto.teacher.SectionLeaderboardResponse;
-import com.filiup.Filiup.dto.teacher.StudentRankingResponse;
 import com.filiup.Filiup.entity.*;
 import com.filiup.Filiup.repository.*;
+import com.filiup.Filiup.service.achievement.AchievementRule;
+import com.filiup.Filiup.service.achievement.StudentProgressTracker;
+import com.filiup.Filiup.service.leaderboard.LeaderboardPeriod;
+import com.filiup.Filiup.service.leaderboard.SchoolPodium;
+import com.filiup.Filiup.service.leaderboard.SectionLeaderboardIndex;
+import com.filiup.Filiup.service.scoring.AnswerKey;
+import com.filiup.Filiup.service.scoring.AnswerKeyCache;
+import com.filiup.Filiup.service.scoring.ScoreResult;
+import com.filiup.Filiup.service.scoring.ScoringEngine;
+import com.filiup.Filiup.service.scoring.SubmittedAnswers;
+import com.filiup.Filiup.service.submission.AttemptRecord;
+import com.filiup.Filiup.service.submission.AttemptWriter;
+import com.filiup.Filiup.service.submission.IdempotencyKeyStore;
+import com.filiup.Filiup.service.submission.PreparedSubmission;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,10 +49,28 @@ public class StudentService {
 
     private final UserRepository userRepository;
     private final SectionRepository sectionRepository;
-    private final ActivityRepository activityRepository;
     private final StudentActivityAttemptRepository attemptRepository;
-    private final StudentLessonProgressRepository progressRepository;
+    private final StudentBestAttemptRepository bestAttemptRepository;
     private final StudentAchievementRepository achievementRepository;
+    private final InviteCodeRegistry inviteCodeRegistry;
+    private final CurriculumIndex curriculumIndex;
+    private final AnswerKeyCache answerKeyCache;
+    private final ScoringEngine scoringEngine;
+    private final ObjectMapper objectMapper;
+    private final AttemptWriter attemptWriter;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final StudentProgressCounterRepository counterRepository;
+    private final StudentProgressTracker progressTracker;
+    private final SectionLeaderboardIndex leaderboardIndex;
+    private final SchoolPodium schoolPodium;
+    private final LeaderboardService leaderboardService;
+
+    @Value("${student.submissions.batch-max-size:50}")
+    private int batchMaxSize;
+
+    // How far back a client-reported completion time is accepted
+    @Value("${student.submissions.max-client-age-hours:72}")
+    private long maxClientAgeHours;
 
     @Transactional
     public void registerToSection(UUID studentId, RegisterSectionRequest request) {
@@ -44,15 +81,69 @@ public class StudentService {
             throw new RuntimeException("User is not a student");
         }
 
-        Section section = sectionRepository.findByInviteCode(request.getRegistrationCode())
+        UUID sectionId = inviteCodeRegistry.resolve(request.getRegistrationCode())
                 .orElseThrow(() -> new RuntimeException("Invalid registration code"));
 
-        student.setSection(section);
+        Section previous = student.getSection();
+        if (previous != null && previous.getId().equals(sectionId)) {
+            return;
+        }
+
+        // Atomic conditional increment: capacity holds even when a whole class joins at once
+        if (sectionRepository.tryReserveSeat(sectionId) == 0) {
+            // The indexed code may belong to a section deleted or deactivated on another instance
+            if (sectionRepository.findById(sectionId).filter(section -> Boolean.TRUE.equals(section.getIsActive())).isEmpty()) {
+                inviteCodeRegistry.evict(request.getRegistrationCode(), sectionId);
+                throw new RuntimeException("Invalid registration code");
+            }
+            throw new RuntimeException("Section is full");
+        }
+        if (previous != null) {
+            sectionRepository.adjustEnrolledCount(previous.getId(), -1);
+        }
+
+        student.setSection(sectionRepository.getReferenceById(sectionId));
         userRepository.save(student);
+        leaderboardIndex.invalidate(previous != null ? previous.getId() : null);
+        leaderboardIndex.invalidate(sectionId);
+        // The podium shows the section name
+        schoolPodium.invalidate(studentId);
     }
 
+    /**
+     * Submits an activity. With an idempotency key, a retry of a submission already recorded
+     * within the replay window returns the original response without scoring or writing again.
+     */
     @Transactional
-    public ActivitySubmissionResponse submitActivity(UUID studentId, UUID activityId, SubmitActivityRequest request) {
+    public ActivitySubmissionResponse submitActivity(UUID studentId, UUID activityId, SubmitActivityRequest request,
+                                                     String idempotencyKey) {
+        PreparedSubmission prepared = prepareSubmission(studentId, activityId, request, idempotencyKey);
+        if (prepared.replayed()) {
+            return prepared.response();
+        }
+
+        AttemptRecord attempt = prepared.attempt();
+
+        // One round trip: append the attempt and update the student's best attempt
+        attemptWriter.write(attempt);
+
+        // Counters move with the attempt; achievements are awarded in the background after commit
+        progressTracker.activitySubmitted(studentId, answerKeyCache.get(activityId).getLessonId(),
+                attempt.percentage(), attempt.timeSpentSeconds());
+
+        if (idempotencyKey != null) {
+            idempotencyKeyStore.complete(studentId, idempotencyKey, activityId, prepared.response());
+        }
+        return prepared.response();
+    }
+
+    /**
+     * Claims the idempotency key and scores the submission without recording it. On its own it
+     * commits the claim, so the caller is responsible for recording the attempt or releasing the key.
+     */
+    @Transactional
+    public PreparedSubmission prepareSubmission(UUID studentId, UUID activityId, SubmitActivityRequest request,
+                                                String idempotencyKey) {
         if (studentId == null) {
             throw new IllegalArgumentException("Student ID cannot be null");
         }
@@ -64,297 +155,139 @@ public class StudentService {
         if (request == null) {
             throw new IllegalArgumentException("Request cannot be null");
         }
-        
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-
-        Activity activity = activityRepository.findById(activityId)
-                .orElseThrow(() -> new RuntimeException("Activity not found"));
 
-        // Ensure answers list is not null
-        List<Object> answers = request.getAnswers();
-        if (answers == null) {
-            answers = List.of(); // Empty list if null
-        }
-        
-        // Calculate score based on activity type
-        Map<String, Object> result = calculateScore(activity, answers);
-        
-        int score = (int) result.get("score");
-        int totalQuestions = (int) result.get("totalQuestions");
-        BigDecimal percentage = BigDecimal.valueOf((score * 100.0) / totalQuestions)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        // Check if student already has an attempt for this activity
-        List<StudentActivityAttempt> existingAttempts = 
-            attemptRepository.findByStudentAndActivity(student, activity);
-        
-        StudentActivityAttempt attempt;
-        if (!existingAttempts.isEmpty()) {
-            // Update the most recent existing attempt instead of creating new one
-            attempt = existingAttempts.get(0);
-            attempt.setScore(score);
-            attempt.setTotalQuestions(totalQuestions);
-            attempt.setPercentage(percentage);
-            attempt.setTimeSpentSeconds(request.getTimeSpentSeconds());
-            
-            Map<String, Object> answersMap = new HashMap<>();
-            answersMap.put("answers", answers);
-            attempt.setAnswers(answersMap);
-            attempt.setCompletedAt(LocalDateTime.now());
-        } else {
-            // Create new attempt if this is the first time
-            Map<String, Object> answersMap = new HashMap<>();
-            answersMap.put("answers", answers);
-            
-            attempt = StudentActivityAttempt.builder()
-                    .student(student)
-                    .activity(activity)
-                    .score(score)
-                    .totalQuestions(totalQuestions)
-                    .percentage(percentage)
-                    .timeSpentSeconds(request.getTimeSpentSeconds())
-                    .answers(answersMap)
-                    .completedAt(LocalDateTime.now())
-                    .build();
+        if (idempotencyKey != null) {
+            Optional<ActivitySubmissionResponse> recorded = idempotencyKeyStore.claim(studentId, idempotencyKey, activityId);
+            if (recorded.isPresent()) {
+                return PreparedSubmission.replay(recorded.get());
+            }
         }
 
-        attemptRepository.save(attempt);
-
-        // Check for achievements
-        checkAndAwardAchievements(student, percentage);
-
-        // Find next activity
-        ActivitySubmissionResponse.NextActivity nextActivity = findNextActivity(activity);
-
-        return ActivitySubmissionResponse.builder()
-                .score(score)
-                .percentage(percentage)
-                .isCompleted(true)
-                .correctAnswers(score)
-                .totalQuestions(totalQuestions)
-                .nextActivity(nextActivity)
-                .build();
+        AttemptRecord attempt = scoreSubmission(studentId, activityId, request.getAnswers(),
+                request.getTimeSpentSeconds(), LocalDateTime.now());
+        return new PreparedSubmission(attempt, idempotencyKey, toSubmissionResponse(attempt), false);
     }
 
     @Transactional
     public void completeLessonReading(UUID studentId, UUID lessonId) {
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
+        progressTracker.lessonRead(studentId, lessonId);
+    }
 
-        Lesson lesson = new Lesson();
-        lesson.setId(lessonId);
+    /**
+     * Scores several submissions of one student, e.g. activities finished offline, and records the
+     * valid ones in one transaction with a single JDBC batch. Invalid submissions are reported
+     * per item and do not prevent the others from being recorded.
+     */
+    @Transactional
+    public BatchSubmissionResponse submitActivities(UUID studentId, BatchSubmitActivityRequest request) {
+        List<BatchSubmitActivityRequest.Submission> submissions = request.getSubmissions();
+        if (submissions.size() > batchMaxSize) {
+            throw new RuntimeException("A batch can contain at most " + batchMaxSize + " submissions");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BatchSubmissionResponse.Result> results = new ArrayList<>(submissions.size());
+        List<AttemptRecord> attempts = new ArrayList<>(submissions.size());
+
+        for (int i = 0; i < submissions.size(); i++) {
+            BatchSubmitActivityRequest.Submission submission = submissions.get(i);
+            try {
+                AttemptRecord attempt = scoreSubmission(studentId, submission.getActivityId(), submission.getAnswers(),
+                        submission.getTimeSpentSeconds(), clientCompletedAt(submission.getCompletedAt(), now));
+                attempts.add(attempt);
+                results.add(new BatchSubmissionResponse.Result(i, submission.getActivityId(),
+                        toSubmissionResponse(attempt), null));
+            } catch (RuntimeException e) {
+                results.add(new BatchSubmissionResponse.Result(i, submission.getActivityId(), null, e.getMessage()));
+            }
+        }
 
-        StudentLessonProgress progress = progressRepository
-                .findByStudentAndLesson(student, lesson)
-                .orElse(StudentLessonProgress.builder()
-                        .student(student)
-                        .lesson(lesson)
-                        .build());
+        // Oldest first, so the history is appended in completion order
+        attempts.sort(Comparator.comparing(AttemptRecord::completedAt));
+        attemptWriter.writeAll(attempts);
+        progressTracker.activitiesSubmitted(studentId, attempts);
 
-        progress.setIsCompleted(true);
-        progress.setCompletedAt(LocalDateTime.now());
-        progressRepository.save(progress);
+        return BatchSubmissionResponse.builder()
+                .accepted(attempts.size())
+                .rejected(submissions.size() - attempts.size())
+                .results(results)
+                .build();
     }
 
-    private Map<String, Object> calculateScore(Activity activity, List<Object> studentAnswers) {
-        int score = 0;
-        int totalQuestions = 0;
-
-        switch (activity.getActivityType()) {
-            case MULTIPLE_CHOICE:
-            case STORY_COMPREHENSION:
-                // Use the questions entity relationship if content map is null
-                if (!activity.getQuestions().isEmpty()) {
-                    List<Question> questionEntities = activity.getQuestions();
-                    totalQuestions = questionEntities.size();
-                    
-                    for (int i = 0; i < questionEntities.size() && i < studentAnswers.size(); i++) {
-                        Question question = questionEntities.get(i);
-                        Integer correctAnswer = question.getCorrectAnswerIndex();
-                        Integer studentAnswer = ((Number) studentAnswers.get(i)).intValue();
-                        
-                        if (correctAnswer.equals(studentAnswer)) {
-                            score++;
-                        }
-                    }
-                } else if (activity.getContent() != null) {
-                    // Fallback to content map if available
-                    Map<String, Object> content = activity.getContent();
-                    Object questionsObj = content.get("questions");
-                    
-                    if (questionsObj instanceof List<?>) {
-                        List<?> questionsList = (List<?>) questionsObj;
-                        totalQuestions = questionsList.size();
-                        
-                        for (int i = 0; i < questionsList.size() && i < studentAnswers.size(); i++) {
-                            Object questionObj = questionsList.get(i);
-                            if (questionObj instanceof Map<?, ?>) {
-                                Map<?, ?> question = (Map<?, ?>) questionObj;
-                                Object correctAnswerObj = question.get("correctAnswerIndex");
-                                
-                                if (correctAnswerObj instanceof Number) {
-                                    Integer correctAnswer = ((Number) correctAnswerObj).intValue();
-                                    Integer studentAnswer = ((Number) studentAnswers.get(i)).intValue();
-                                    
-                                    if (correctAnswer.equals(studentAnswer)) {
-                                        score++;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                break;
-
-            case DRAG_DROP:
-                // Use the dragDropItems entity relationship if content map is null
-                if (!activity.getDragDropItems().isEmpty()) {
-                    List<DragDropItem> itemEntities = activity.getDragDropItems();
-                    totalQuestions = itemEntities.size();
-                    
-                    for (int i = 0; i < itemEntities.size() && i < studentAnswers.size(); i++) {
-                        DragDropItem item = itemEntities.get(i);
-                        String correctCategory = item.getCorrectCategory();
-                        String studentCategory = (String) studentAnswers.get(i);
-                        
-                        if (correctCategory.equals(studentCategory)) {
-                            score++;
-                        }
-                    }
-                } else if (activity.getContent() != null) {
-                    // Fallback to content map if available
-                    Map<String, Object> content = activity.getContent();
-                    Object itemsObj = content.get("dragDropItems");
-                    
-                    if (itemsObj instanceof List<?>) {
-                        List<?> itemsList = (List<?>) itemsObj;
-                        totalQuestions = itemsList.size();
-                        
-                        for (int i = 0; i < itemsList.size() && i < studentAnswers.size(); i++) {
-                            Object itemObj = itemsList.get(i);
-                            if (itemObj instanceof Map<?, ?>) {
-                                Map<?, ?> item = (Map<?, ?>) itemObj;
-                                // JSON payload uses "correctCategory" for the expected category id
-                                Object categoryObj = item.get("correctCategory");
-                                
-                                if (categoryObj instanceof String && studentAnswers.get(i) instanceof String) {
-                                    String correctCategory = (String) categoryObj;
-                                    String studentCategory = (String) studentAnswers.get(i);
-                                    
-                                    if (correctCategory.equals(studentCategory)) {
-                                        score++;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                break;
-
-            case MATCHING_PAIRS:
-                // Frontend sends answers as an array of right IDs aligned to the left pairs order
-                if (!activity.getMatchingPairs().isEmpty()) {
-                    List<MatchingPair> pairEntities = activity.getMatchingPairs();
-                    totalQuestions = pairEntities.size();
-
-                    for (int i = 0; i < pairEntities.size() && i < studentAnswers.size(); i++) {
-                        MatchingPair pair = pairEntities.get(i);
-                        Object ansObj = studentAnswers.get(i);
-                        if (ansObj instanceof String) {
-                            String rightId = (String) ansObj;
-                            // Correct if the chosen right ID equals the pair's ID
-                            if (pair.getId().toString().equals(rightId)) {
-                                score++;
-                            }
-                        }
-                    }
-                } else if (activity.getContent() != null) {
-                    // Fallback to content map if available: items have id, leftText, rightText, orderIndex
-                    Map<String, Object> content = activity.getContent();
-                    Object pairsObj = content.get("matchingPairs");
-                    if (pairsObj instanceof List<?>) {
-                        List<?> pairsList = (List<?>) pairsObj;
-                        totalQuestions = pairsList.size();
-
-                        for (int i = 0; i < pairsList.size() && i < studentAnswers.size(); i++) {
-                            Object pairObj = pairsList.get(i);
-                            Object ansObj = studentAnswers.get(i);
-                            if (pairObj instanceof Map<?, ?> && ansObj instanceof String) {
-                                Map<?, ?> pairMap = (Map<?, ?>) pairObj;
-                                Object idObj = pairMap.get("id");
-                                if (idObj instanceof String) {
-                                    if (((String) idObj).equals(ansObj)) {
-                                        score++;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                break;
+    private AttemptRecord scoreSubmission(UUID studentId, UUID activityId, List<Object> answers,
+                                          Integer timeSpentSeconds, LocalDateTime completedAt) {
+        // Ensure answers list is not null
+        if (answers == null) {
+            answers = List.of(); // Empty list if null
         }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("score", score);
-        result.put("totalQuestions", totalQuestions);
-        return result;
+        // Malformed answers are rejected here, before any database work
+        SubmittedAnswers submittedAnswers = SubmittedAnswers.of(answers);
+
+        // Precompiled key: the activity's content is not loaded again on every submission
+        AnswerKey answerKey = answerKeyCache.get(activityId);
+
+        ScoreResult result = scoringEngine.score(answerKey, submittedAnswers);
+        return new AttemptRecord(studentId, activityId, result.score(), result.totalQuestions(), result.percentage(),
+                timeSpentSeconds, toAnswersJson(answers), completedAt);
     }
 
-    private void checkAndAwardAchievements(User student, BigDecimal percentage) {
-        // Award "Perfect Score" achievement
-        if (percentage.compareTo(BigDecimal.valueOf(100)) == 0) {
-            if (!achievementRepository.existsByStudentAndAchievementType(student, "PERFECT_SCORE")) {
-                StudentAchievement achievement = StudentAchievement.builder()
-                        .student(student)
-                        .achievementType("PERFECT_SCORE")
-                        .achievementName("Perfect Score")
-                        .build();
-                achievementRepository.save(achievement);
-            }
+    // Client clocks are trusted within a window; future or very old timestamps become "now"
+    private LocalDateTime clientCompletedAt(LocalDateTime completedAt, LocalDateTime now) {
+        if (completedAt == null || completedAt.isAfter(now) || completedAt.isBefore(now.minusHours(maxClientAgeHours))) {
+            return now;
         }
+        return completedAt;
+    }
 
-        // Award "First Lesson" achievement
-        long completedLessons = progressRepository.findByStudent(student).stream()
-                .filter(StudentLessonProgress::getIsCompleted)
-                .count();
-
-        if (completedLessons == 1) {
-            if (!achievementRepository.existsByStudentAndAchievementType(student, "FIRST_LESSON")) {
-                StudentAchievement achievement = StudentAchievement.builder()
-                        .student(student)
-                        .achievementType("FIRST_LESSON")
-                        .achievementName("First Lesson")
-                        .build();
-                achievementRepository.save(achievement);
-            }
-        }
+    private ActivitySubmissionResponse toSubmissionResponse(AttemptRecord attempt) {
+        // Next activity of the lesson, or the next lesson at its end
+        CurriculumIndex.Successor next = curriculumIndex.successorOf(attempt.activityId());
+
+        return ActivitySubmissionResponse.builder()
+                .score(attempt.score())
+                .percentage(attempt.percentage())
+                .isCompleted(true)
+                .correctAnswers(attempt.score())
+                .totalQuestions(attempt.totalQuestions())
+                .nextActivity(toNextActivity(next.activity()))
+                .nextLesson(toNextLesson(next.lesson()))
+                .build();
     }
 
-    private ActivitySubmissionResponse.NextActivity findNextActivity(Activity currentActivity) {
-        Lesson lesson = currentActivity.getLesson();
-        List<Activity> activities = activityRepository.findByLessonOrderByOrderIndexAsc(lesson);
-        
-        int currentIndex = -1;
-        for (int i = 0; i < activities.size(); i++) {
-            if (activities.get(i).getId().equals(currentActivity.getId())) {
-                currentIndex = i;
-                break;
-            }
+    private static ActivitySubmissionResponse.NextActivity toNextActivity(CurriculumIndex.ActivityStep step) {
+        if (step == null) {
+            return null;
         }
+        return ActivitySubmissionResponse.NextActivity.builder()
+                .id(step.id())
+                .type(step.type().name())
+                .build();
+    }
 
-        if (currentIndex >= 0 && currentIndex < activities.size() - 1) {
-            Activity nextActivity = activities.get(currentIndex + 1);
-            return ActivitySubmissionResponse.NextActivity.builder()
-                    .id(nextActivity.getId())
-                    .type(nextActivity.getActivityType().name())
-                    .build();
+    private static ActivitySubmissionResponse.NextLesson toNextLesson(CurriculumIndex.LessonStep step) {
+        if (step == null) {
+            return null;
         }
+        return ActivitySubmissionResponse.NextLesson.builder()
+                .id(step.id())
+                .title(step.title())
+                .phaseId(step.phaseId())
+                .phaseTitle(step.phaseTitle())
+                .newPhase(step.newPhase())
+                .build();
+    }
 
-        return null;
+    // Same {"answers": [...]} document the attempt entity stores
+    private String toAnswersJson(List<Object> answers) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("answers", answers));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize answers", e);
+        }
     }
 
-    public SectionLeaderboardResponse getStudentSectionLeaderboard(UUID studentId) {
+    public SectionLeaderboardResponse getStudentSectionLeaderboard(UUID studentId, LeaderboardPeriod period) {
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
 
@@ -362,58 +295,7 @@ public class StudentService {
             throw new RuntimeException("Student is not assigned to any section");
         }
 
-        Section section = student.getSection();
-        List<User> students = section.getStudents();
-        
-        List<StudentRankingResponse> rankings = students.stream()
-                .map(s -> {
-                    // Use best attempts only to prevent exploitation
-                    List<StudentActivityAttempt> bestAttempts = 
-                        attemptRepository.findBestAttemptsByStudentId(s.getId());
-                    
-                    // Sum only the best score for each unique activity
-                    int totalScore = bestAttempts.stream()
-                            .mapToInt(attempt -> attempt.getScore() != null ? attempt.getScore() : 0)
-                            .sum();
-                    
-                    int lessonsCompleted = progressRepository.countByStudentIdAndIsCompleted(s.getId(), true);
-                    
-                    // Count unique activities completed (not total attempts)
-                    int activitiesCompleted = (int) bestAttempts.stream()
-                            .map(attempt -> attempt.getActivity().getId())
-                            .distinct()
-                            .count();
-                    
-                    // Calculate average percentage from best attempts only
-                    double averageScore = bestAttempts.stream()
-                            .filter(attempt -> attempt.getPercentage() != null)
-                            .mapToDouble(attempt -> attempt.getPercentage().doubleValue())
-                            .average()
-                            .orElse(0.0);
-
-                    return StudentRankingResponse.builder()
-                            .id(s.getId())
-                            .name(s.getName())
-                            .totalScore(totalScore)
-                            .lessonsCompleted(lessonsCompleted)
-                            .activitiesCompleted(activitiesCompleted)
-                            .averageScore(averageScore)
-                            .build();
-                })
-                .sorted((a, b) -> Integer.compare(b.getTotalScore(), a.getTotalScore()))
-                .collect(Collectors.toList());
-
-        // Assign ranks
-        for (int i = 0; i < rankings.size(); i++) {
-            rankings.get(i).setRank(i + 1);
-        }
-
-        return SectionLeaderboardResponse.builder()
-                .sectionId(section.getId())
-                .sectionName(section.getName())
-                .gradeLevel(section.getGradeLevel())
-                .students(rankings)
-                .build();
+        return leaderboardService.getSectionLeaderboard(student.getSection(), period);
     }
     
     public ProfileResponse getStudentProfile(UUID studentId) {
@@ -423,11 +305,14 @@ public class StudentService {
         // Get student's basic info
         ProfileResponse.StudentInfo studentInfo = buildStudentInfo(student);
         
+        StudentProgressCounter counter = counterRepository.findById(studentId)
+                .orElseGet(() -> StudentProgressCounter.empty(studentId));
+
         // Get student's stats
-        ProfileResponse.StudentStats stats = calculateStudentStats(student);
+        ProfileResponse.StudentStats stats = calculateStudentStats(student, counter);
         
         // Get student's achievements
-        List<ProfileResponse.Achievement> achievements = getStudentAchievements(student);
+        List<ProfileResponse.Achievement> achievements = getStudentAchievements(student, counter);
         
         // Get student's recent activity
         List<ProfileResponse.RecentActivity> recentActivity = getRecentActivity(student);
@@ -454,16 +339,15 @@ public class StudentService {
                 .build();
     }
     
-    private ProfileResponse.StudentStats calculateStudentStats(User student) {
-        // Get completed lessons count
-        int lessonsCompleted = progressRepository.countByStudentIdAndIsCompleted(student.getId(), true);
+    private ProfileResponse.StudentStats calculateStudentStats(User student, StudentProgressCounter counter) {
+        int lessonsCompleted = counter.getLessonsCompleted();
         
         // Get total lessons count
         int totalLessons = 12; // This should be fetched from the database in a real implementation
         
         // Get total score from best attempts
-        List<StudentActivityAttempt> bestAttempts = 
-                attemptRepository.findBestAttemptsByStudentId(student.getId());
+        List<StudentBestAttempt> bestAttempts = 
+                bestAttemptRepository.findByStudentId(student.getId());
         
         int totalScore = bestAttempts.stream()
                 .mapToInt(attempt -> attempt.getScore() != null ? attempt.getScore() : 0)
@@ -485,42 +369,16 @@ public class StudentService {
                 .build();
     }
     
-    private List<ProfileResponse.Achievement> getStudentAchievements(User student) {
-        // Get student's achievements from the database
-        List<StudentAchievement> dbAchievements = achievementRepository.findByStudent(student);
-        
-        // Define all possible achievements
-        List<ProfileResponse.Achievement> allAchievements = new ArrayList<>();
-        allAchievements.add(new ProfileResponse.Achievement("1", "First Lesson", "🎯", false));
-        allAchievements.add(new ProfileResponse.Achievement("2", "Perfect Score", "💯", false));
-        allAchievements.add(new ProfileResponse.Achievement("3", "5 Lessons", "📚", false));
-        allAchievements.add(new ProfileResponse.Achievement("4", "10 Lessons", "🏆", false));
-        allAchievements.add(new ProfileResponse.Achievement("5", "Quick Learner", "⚡", false));
-        allAchievements.add(new ProfileResponse.Achievement("6", "Phase Master", "👑", false));
-        
-        // Mark earned achievements
-        for (StudentAchievement dbAchievement : dbAchievements) {
-            for (ProfileResponse.Achievement achievement : allAchievements) {
-                if (achievement.getName().equals(dbAchievement.getAchievementName())) {
-                    achievement.setEarned(true);
-                    break;
-                }
-            }
+    private List<ProfileResponse.Achievement> getStudentAchievements(User student, StudentProgressCounter counter) {
+        Set<String> earnedTypes = new HashSet<>(achievementRepository.findTypesByStudentId(student.getId()));
+
+        // A rule already met counts as earned even if the evaluator has not recorded it yet
+        List<ProfileResponse.Achievement> achievements = new ArrayList<>();
+        for (AchievementRule rule : AchievementRule.values()) {
+            boolean earned = earnedTypes.contains(rule.type()) || rule.isMet(counter);
+            achievements.add(new ProfileResponse.Achievement(rule.id(), rule.displayName(), rule.icon(), earned));
         }
-        
-        // Check for additional achievements based on progress
-        int lessonsCompleted = progressRepository.countByStudentIdAndIsCompleted(student.getId(), true);
-        if (lessonsCompleted >= 1) {
-            allAchievements.get(0).setEarned(true); // First Lesson
-        }
-        if (lessonsCompleted >= 5) {
-            allAchievements.get(2).setEarned(true); // 5 Lessons
-        }
-        if (lessonsCompleted >= 10) {
-            allAchievements.get(3).setEarned(true); // 10 Lessons
-        }
-        
-        return allAchievements;
+        return achievements;
     }
     
     private List<ProfileResponse.RecentActivity> getRecentActivity(User student) {
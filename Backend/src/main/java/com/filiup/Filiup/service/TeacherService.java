@@ -2,11 +2,11 @@ package com.filiup.Filiup.service;
 
 import com.filiup.Filiup.dto.teacher.*;
 import com.filiup.Filiup.entity.Section;
-import com.filiup.Filiup.entity.StudentActivityAttempt;
 import com.filiup.Filiup.entity.User;
 import com.filiup.Filiup.repository.SectionRepository;
 import com.filiup.Filiup.repository.StudentActivityAttemptRepository;
 import com.filiup.Filiup.repository.StudentLessonProgressRepository;
+import com.filiup.Filiup.service.leaderboard.LeaderboardPeriod;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -23,6 +23,7 @@ public class TeacherService {
     private final SectionRepository sectionRepository;
     private final StudentLessonProgressRepository lessonProgressRepository;
     private final StudentActivityAttemptRepository activityAttemptRepository;
+    private final LeaderboardService leaderboardService;
 
     public TeacherDashboardResponse getDashboard(UUID teacherId) {
         List<Section> sections = sectionRepository.findByTeacherId(teacherId);
@@ -40,33 +41,18 @@ public class TeacherService {
                 .build();
     }
 
-    public SectionLeaderboardResponse getSectionLeaderboard(UUID sectionId) {
+    public SectionLeaderboardResponse getSectionLeaderboard(UUID sectionId, LeaderboardPeriod period) {
         Section section = sectionRepository.findById(sectionId)
                 .orElseThrow(() -> new RuntimeException("Section not found"));
 
-        List<StudentRankingResponse> rankings = calculateStudentRankings(section);
-
-        return SectionLeaderboardResponse.builder()
-                .sectionId(section.getId())
-                .sectionName(section.getName())
-                .gradeLevel(section.getGradeLevel())
-                .students(rankings)
-                .build();
+        return leaderboardService.getSectionLeaderboard(section, period);
     }
 
-    public List<SectionLeaderboardResponse> getAllSectionsLeaderboard(UUID teacherId) {
+    public List<SectionLeaderboardResponse> getAllSectionsLeaderboard(UUID teacherId, LeaderboardPeriod period) {
         List<Section> sections = sectionRepository.findByTeacherId(teacherId);
         
         return sections.stream()
-                .map(section -> {
-                    List<StudentRankingResponse> rankings = calculateStudentRankings(section);
-                    return SectionLeaderboardResponse.builder()
-                            .sectionId(section.getId())
-                            .sectionName(section.getName())
-                            .gradeLevel(section.getGradeLevel())
-                            .students(rankings)
-                            .build();
-                })
+                .map(section -> leaderboardService.getSectionLeaderboard(section, period))
                 .collect(Collectors.toList());
     }
 
@@ -143,55 +129,6 @@ public class TeacherService {
                 .collect(Collectors.toList());
     }
 
-    private List<StudentRankingResponse> calculateStudentRankings(Section section) {
-        List<User> students = section.getStudents();
-        
-        List<StudentRankingResponse> rankings = students.stream()
-                .map(student -> {
-                    // Use best attempts only to prevent exploitation
-                    List<StudentActivityAttempt> bestAttempts = 
-                        activityAttemptRepository.findBestAttemptsByStudentId(student.getId());
-                    
-                    // Sum only the best score for each unique activity
-                    int totalScore = bestAttempts.stream()
-                            .mapToInt(attempt -> attempt.getScore() != null ? attempt.getScore() : 0)
-                            .sum();
-                    
-                    int lessonsCompleted = lessonProgressRepository.countByStudentIdAndIsCompleted(student.getId(), true);
-                    
-                    // Count unique activities completed (not total attempts)
-                    int activitiesCompleted = (int) bestAttempts.stream()
-                            .map(attempt -> attempt.getActivity().getId())
-                            .distinct()
-                            .count();
-                    
-                    // Calculate average percentage from best attempts only
-                    double averageScore = bestAttempts.stream()
-                            .filter(attempt -> attempt.getPercentage() != null)
-                            .mapToDouble(attempt -> attempt.getPercentage().doubleValue())
-                            .average()
-                            .orElse(0.0);
-
-                    return StudentRankingResponse.builder()
-                            .id(student.getId())
-                            .name(student.getName())
-                            .totalScore(totalScore)
-                            .lessonsCompleted(lessonsCompleted)
-                            .activitiesCompleted(activitiesCompleted)
-                            .averageScore(averageScore)
-                            .build();
-                })
-                .sorted((a, b) -> Integer.compare(b.getTotalScore(), a.getTotalScore()))
-                .collect(Collectors.toList());
-
-        // Assign ranks
-        for (int i = 0; i < rankings.size(); i++) {
-            rankings.get(i).setRank(i + 1);
-        }
-
-        return rankings;
-    }
-
     private double calculateStudentProgress(User student) {
         int totalLessons = lessonProgressRepository.countByStudentId(student.getId());
         int completedLessons = lessonProgressRepository.countByStudentIdAndIsCompleted(student.getId(), true);
@@ -0,0 +1,364 @@
+package com.filiup.Filiup.service;
+
+import com.filiup.Filiup.dto.user.BulkUserImportResponse;
+import com.filiup.Filiup.dto.user.CreateUserRequest;
+import com.filiup.Filiup.entity.Section;
+import com.filiup.Filiup.entity.UserRole;
+import com.filiup.Filiup.repository.SectionRepository;
+import com.filiup.Filiup.repository.UserRepository;
+import com.filiup.Filiup.service.leaderboard.SectionLeaderboardIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk user provisioning. Rows are validated up front, emails are checked with one set-based
+ * query, passwords are hashed on a dedicated worker pool and the users are inserted in JDBC
+ * batches. Invalid rows are skipped and reported; the rest are created in one transaction
+ * together with their sections' seat counts. Emails are compared case-insensitively.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, email, password_hash, full_name, role, section_id, is_active, first_login, " +
+            "token_epoch, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, true, ?, 0, ?, ?) " +
+            "ON CONFLICT (email) DO NOTHING";
+
+    private static final int EMAIL_QUERY_CHUNK = 1000;
+
+    private final UserRepository userRepository;
+    private final SectionRepository sectionRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SectionLeaderboardIndex leaderboardIndex;
+    private final Validator validator;
+
+    @Value("${admin.import.max-rows:5000}")
+    private int maxRows;
+
+    @Value("${admin.import.batch-size:500}")
+    private int batchSize;
+
+    // 0 = half of the CPU cores, leaving the rest for logins and regular traffic
+    @Value("${admin.import.hashing-threads:0}")
+    private int hashingThreads;
+
+    private ExecutorService hashingExecutor;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        hashingExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    public BulkUserImportResponse importUsers(List<CreateUserRequest> requests) {
+        return importRows(requests, Map.of());
+    }
+
+    /**
+     * Imports users from CSV with a header row. Recognised columns are email, fullName, role,
+     * password and section (a section ID); column order does not matter.
+     */
+    public BulkUserImportResponse importCsv(Reader csv) throws IOException {
+        BufferedReader reader = new BufferedReader(csv);
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            throw new RuntimeException("CSV file is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("fullname") || !columns.containsKey("role")) {
+            throw new RuntimeException("CSV header must contain email, fullName and role columns");
+        }
+
+        List<CreateUserRequest> requests = new ArrayList<>();
+        Map<Integer, String> parseErrors = new HashMap<>();
+        List<String> fields;
+        while ((fields = readCsvRecord(reader)) != null) {
+            CreateUserRequest request = new CreateUserRequest();
+            request.setEmail(column(fields, columns, "email"));
+            request.setFullName(column(fields, columns, "fullname"));
+            request.setPassword(column(fields, columns, "password"));
+            requests.add(request);
+
+            String role = column(fields, columns, "role");
+            String section = column(fields, columns, "section");
+            // A row can fail on both columns; report both messages
+            try {
+                request.setRole(role != null ? UserRole.valueOf(role.toUpperCase(Locale.ROOT)) : null);
+            } catch (IllegalArgumentException e) {
+                parseErrors.merge(requests.size(), "Invalid role: " + role, (a, b) -> a + "; " + b);
+            }
+            try {
+                request.setSection(section != null ? UUID.fromString(section) : null);
+            } catch (IllegalArgumentException e) {
+                parseErrors.merge(requests.size(), "Invalid section ID: " + section, (a, b) -> a + "; " + b);
+            }
+        }
+        return importRows(requests, parseErrors);
+    }
+
+    private BulkUserImportResponse importRows(List<CreateUserRequest> requests, Map<Integer, String> rejectedRows) {
+        if (requests.size() > maxRows) {
+            throw new RuntimeException("Bulk import is limited to " + maxRows + " rows");
+        }
+
+        List<BulkUserImportResponse.RowError> errors = new ArrayList<>();
+        List<PendingUser> pending = validate(requests, rejectedRows, errors);
+        int created = insert(hashPasswords(pending), errors);
+
+        errors.sort(Comparator.comparingInt(BulkUserImportResponse.RowError::getRow));
+        log.info("Bulk import finished: {} rows, {} created, {} failed", requests.size(), created, errors.size());
+
+        return BulkUserImportResponse.builder()
+                .totalRows(requests.size())
+                .created(created)
+                .failed(errors.size())
+                .errors(errors)
+                .build();
+    }
+
+    private List<PendingUser> validate(List<CreateUserRequest> requests, Map<Integer, String> rejectedRows,
+                                       List<BulkUserImportResponse.RowError> errors) {
+        List<PendingUser> candidates = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<UUID> sectionIds = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateUserRequest request = requests.get(i);
+            int row = i + 1;
+            if (request.getEmail() != null) {
+                request.setEmail(request.getEmail().trim());
+            }
+            if (rejectedRows.containsKey(row)) {
+                errors.add(new BulkUserImportResponse.RowError(row, request.getEmail(), rejectedRows.get(row)));
+                continue;
+            }
+
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                errors.add(new BulkUserImportResponse.RowError(row, request.getEmail(),
+                        violations.iterator().next().getMessage()));
+                continue;
+            }
+            if (!seenEmails.add(normalizedEmail(request))) {
+                errors.add(new BulkUserImportResponse.RowError(row, request.getEmail(), "Duplicate email in import"));
+                continue;
+            }
+            if (request.getSection() != null) {
+                sectionIds.add(request.getSection());
+            }
+            candidates.add(new PendingUser(row, request, null));
+        }
+
+        // One query per chunk of emails instead of one existsByEmail per row
+        Set<String> existingEmails = new HashSet<>();
+        List<String> emails = candidates.stream().map(c -> normalizedEmail(c.request())).toList();
+        for (int start = 0; start < emails.size(); start += EMAIL_QUERY_CHUNK) {
+            existingEmails.addAll(userRepository.findExistingEmails(
+                    emails.subList(start, Math.min(start + EMAIL_QUERY_CHUNK, emails.size()))));
+        }
+
+        Set<UUID> knownSections = new HashSet<>();
+        for (Section section : sectionRepository.findAllById(sectionIds)) {
+            knownSections.add(section.getId());
+        }
+
+        List<PendingUser> valid = new ArrayList<>(candidates.size());
+        for (PendingUser candidate : candidates) {
+            CreateUserRequest request = candidate.request();
+            if (existingEmails.contains(normalizedEmail(request))) {
+                errors.add(new BulkUserImportResponse.RowError(candidate.row(), request.getEmail(), "Email already exists"));
+            } else if (request.getSection() != null && !knownSections.contains(request.getSection())) {
+                errors.add(new BulkUserImportResponse.RowError(candidate.row(), request.getEmail(), "Section not found"));
+            } else {
+                valid.add(candidate);
+            }
+        }
+        return valid;
+    }
+
+    private List<PendingUser> hashPasswords(List<PendingUser> users) {
+        List<CompletableFuture<PendingUser>> futures = users.stream()
+                .map(user -> CompletableFuture.supplyAsync(
+                        () -> new PendingUser(user.row(), user.request(), passwordEncoder.encode(initialPassword(user.request()))),
+                        hashingExecutor))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Users and seat counts commit together, so a failed batch leaves neither behind
+    private int insert(List<PendingUser> users, List<BulkUserImportResponse.RowError> errors) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        List<BulkUserImportResponse.RowError> conflicts = new ArrayList<>();
+        int created = transactionTemplate.execute(status -> insertUsers(users, conflicts));
+        errors.addAll(conflicts);
+        return created;
+    }
+
+    private int insertUsers(List<PendingUser> users, List<BulkUserImportResponse.RowError> errors) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, batchSize, (ps, user) -> {
+            CreateUserRequest request = user.request();
+            ps.setObject(1, UUID.randomUUID());
+            ps.setString(2, request.getEmail());
+            ps.setString(3, user.passwordHash());
+            ps.setString(4, request.getFullName());
+            ps.setString(5, request.getRole().name());
+            ps.setObject(6, request.getSection());
+            // Only teachers need to reset their password on first login, as in createUser
+            ps.setBoolean(7, request.getRole() == UserRole.TEACHER);
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+
+        int created = 0;
+        int index = 0;
+        Map<UUID, Integer> seatsTaken = new HashMap<>();
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                PendingUser user = users.get(index++);
+                CreateUserRequest request = user.request();
+                if (count == 0) {
+                    // Inserted concurrently by someone else since the email check
+                    errors.add(new BulkUserImportResponse.RowError(user.row(), request.getEmail(),
+                            "Email already exists"));
+                } else {
+                    created++;
+                    if (request.getRole() == UserRole.STUDENT && request.getSection() != null) {
+                        seatsTaken.merge(request.getSection(), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        // Admin imports may exceed capacity, as with createUser, but the seat counters stay accurate
+        seatsTaken.forEach(sectionRepository::adjustEnrolledCount);
+        seatsTaken.keySet().forEach(leaderboardIndex::invalidate);
+        return created;
+    }
+
+    private static String normalizedEmail(CreateUserRequest request) {
+        return request.getEmail().toLowerCase(Locale.ROOT);
+    }
+
+    // Same defaults as AdminController.createUser and AdminService.createUser
+    private static String initialPassword(CreateUserRequest request) {
+        if (request.getRole() == UserRole.TEACHER) {
+            return "teacher123";
+        }
+        return request.getPassword() == null || request.getPassword().isBlank() ? "password" : request.getPassword();
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads the next CSV record, skipping blank lines, honouring double-quoted fields and ""
+     * escapes. A quoted field may span lines; its line breaks are kept as \n. Returns null at
+     * the end of the input.
+     */
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                throw new RuntimeException("CSV ends inside a quoted field");
+            }
+            current.append('\n');
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private record PendingUser(int row, CreateUserRequest request, String passwordHash) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.filiup.Filiup.service.achievement;
+
+import com.filiup.Filiup.entity.StudentProgressCounter;
+import com.filiup.Filiup.repository.StudentAchievementRepository;
+import com.filiup.Filiup.repository.StudentProgressCounterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Awards achievements off the request path. Committed {@link StudentProgressEvent}s are queued
+ * and a single worker drains them in batches: earned achievements and progress counters are
+ * loaded for the whole batch with one query each, every {@link AchievementRule} is checked
+ * against the counters, and new achievements are written in one JDBC batch.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AchievementEvaluator {
+
+    private static final String INSERT_ACHIEVEMENT_SQL =
+            "INSERT INTO student_achievements (id, student_id, achievement_type, achievement_name, earned_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT ON CONSTRAINT uk_student_achievements_student_type DO NOTHING";
+
+    private final StudentAchievementRepository achievementRepository;
+    private final StudentProgressCounterRepository counterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${achievements.evaluator.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${achievements.evaluator.batch-size:200}")
+    private int batchSize;
+
+    private BlockingQueue<StudentProgressEvent> queue;
+    private Thread worker;
+    private volatile boolean running;
+    private Counter awardedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        awardedCounter = Counter.builder("achievements.awarded")
+                .description("Achievements awarded by the background evaluator")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("achievements.events.dropped")
+                .description("Progress events dropped because the evaluation queue was full")
+                .register(meterRegistry);
+        Gauge.builder("achievements.queue.size", this, evaluator -> evaluator.queue.size())
+                .description("Progress events waiting for achievement evaluation")
+                .register(meterRegistry);
+
+        running = true;
+        worker = new Thread(this::drain, "achievement-evaluator");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProgress(StudentProgressEvent event) {
+        // Never block the committing request; a dropped event is picked up by the student's next one
+        if (!queue.offer(event)) {
+            droppedCounter.increment();
+            log.warn("Achievement queue full, dropping progress event of student {}", event.studentId());
+        }
+    }
+
+    private void drain() {
+        List<StudentProgressEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                StudentProgressEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                evaluate(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Achievement evaluation failed for {} progress events", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void evaluate(List<StudentProgressEvent> events) {
+        Set<UUID> studentIds = new LinkedHashSet<>();
+        for (StudentProgressEvent event : events) {
+            studentIds.add(event.studentId());
+        }
+
+        Map<UUID, Set<String>> earnedTypes = new HashMap<>();
+        for (Object[] row : achievementRepository.findTypesByStudentIds(studentIds)) {
+            earnedTypes.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        Map<UUID, StudentProgressCounter> counters = new HashMap<>();
+        for (StudentProgressCounter counter : counterRepository.findAllById(studentIds)) {
+            counters.put(counter.getStudentId(), counter);
+        }
+
+        List<Award> awards = new ArrayList<>();
+        for (UUID studentId : studentIds) {
+            StudentProgressCounter counter = counters.get(studentId);
+            if (counter == null) {
+                continue;
+            }
+            Set<String> earned = earnedTypes.getOrDefault(studentId, Set.of());
+            for (AchievementRule rule : AchievementRule.values()) {
+                if (!earned.contains(rule.type()) && rule.isMet(counter)) {
+                    awards.add(new Award(studentId, rule));
+                }
+            }
+        }
+
+        if (!awards.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_ACHIEVEMENT_SQL, awards, awards.size(), (ps, award) -> {
+                ps.setObject(1, UUID.randomUUID());
+                ps.setObject(2, award.studentId());
+                ps.setString(3, award.rule().type());
+                ps.setString(4, award.rule().displayName());
+                ps.setTimestamp(5, now);
+            });
+            awardedCounter.increment(awards.size());
+        }
+    }
+
+    private record Award(UUID studentId, AchievementRule rule) {
+    }
+}
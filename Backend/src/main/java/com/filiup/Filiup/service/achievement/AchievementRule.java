@@ -0,0 +1,76 @@
+package com.filiup.Filiup.service.achievement;
+
+import com.filiup.Filiup.entity.StudentProgressCounter;
+
+import java.math.BigDecimal;
+import java.util.function.ToLongFunction;
+
+/**
+ * Achievement catalog. Each rule is a threshold on one of the student's progress counters;
+ * the constant name is the {@code achievement_type} stored for earned achievements and the
+ * declaration order is the order shown on the profile.
+ */
+public enum AchievementRule {
+
+    FIRST_LESSON("1", "First Lesson", "🎯", Metric.LESSONS_COMPLETED, 1),
+    PERFECT_SCORE("2", "Perfect Score", "💯", Metric.PERFECT_SCORES, 1),
+    FIVE_LESSONS("3", "5 Lessons", "📚", Metric.LESSONS_COMPLETED, 5),
+    TEN_LESSONS("4", "10 Lessons", "🏆", Metric.LESSONS_COMPLETED, 10),
+    QUICK_LEARNER("5", "Quick Learner", "⚡", Metric.QUICK_PASSES, 3),
+    PHASE_MASTER("6", "Phase Master", "👑", Metric.PHASES_COMPLETED, 1),
+    // One hour spent on activities, summed over every submission
+    DEDICATED_LEARNER("7", "Dedicated Learner", "⏳", Metric.TIME_SPENT_SECONDS, 3600);
+
+    // A submission counts as a quick pass at or above this percentage within this many seconds
+    public static final BigDecimal QUICK_PASS_MIN_PERCENTAGE = BigDecimal.valueOf(80);
+    public static final int QUICK_PASS_MAX_SECONDS = 60;
+    public static final BigDecimal PERFECT_PERCENTAGE = BigDecimal.valueOf(100);
+
+    private final String id;
+    private final String displayName;
+    private final String icon;
+    private final Metric metric;
+    private final long threshold;
+
+    AchievementRule(String id, String displayName, String icon, Metric metric, long threshold) {
+        this.id = id;
+        this.displayName = displayName;
+        this.icon = icon;
+        this.metric = metric;
+        this.threshold = threshold;
+    }
+
+    public String type() {
+        return name();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    public String icon() {
+        return icon;
+    }
+
+    public boolean isMet(StudentProgressCounter counter) {
+        return metric.value.applyAsLong(counter) >= threshold;
+    }
+
+    public enum Metric {
+        LESSONS_COMPLETED(StudentProgressCounter::getLessonsCompleted),
+        PHASES_COMPLETED(StudentProgressCounter::getPhasesCompleted),
+        PERFECT_SCORES(StudentProgressCounter::getPerfectScores),
+        QUICK_PASSES(StudentProgressCounter::getQuickPasses),
+        TIME_SPENT_SECONDS(StudentProgressCounter::getTimeSpentSeconds);
+
+        private final ToLongFunction<StudentProgressCounter> value;
+
+        Metric(ToLongFunction<StudentProgressCounter> value) {
+            this.value = value;
+        }
+    }
+}
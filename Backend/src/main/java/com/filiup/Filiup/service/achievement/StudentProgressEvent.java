@@ -0,0 +1,26 @@
+package com.filiup.Filiup.service.achievement;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that records a student's progress; the
+ * {@link AchievementEvaluator} only sees it once that transaction has committed.
+ *
+ * @param percentage score of the submitted activity, or {@code null} for a lesson reading or a batch
+ */
+public record StudentProgressEvent(UUID studentId, UUID lessonId, BigDecimal percentage, Integer timeSpentSeconds) {
+
+    public static StudentProgressEvent activitySubmitted(UUID studentId, UUID lessonId, BigDecimal percentage,
+                                                         Integer timeSpentSeconds) {
+        return new StudentProgressEvent(studentId, lessonId, percentage, timeSpentSeconds);
+    }
+
+    public static StudentProgressEvent batchSubmitted(UUID studentId) {
+        return new StudentProgressEvent(studentId, null, null, null);
+    }
+
+    public static StudentProgressEvent lessonCompleted(UUID studentId, UUID lessonId) {
+        return new StudentProgressEvent(studentId, lessonId, null, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.filiup.Filiup.service.achievement;
+
+import com.filiup.Filiup.repository.StudentLessonProgressRepository;
+import com.filiup.Filiup.repository.StudentProgressCounterRepository;
+import com.filiup.Filiup.service.submission.AttemptRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps {@code student_progress_counters} in step with recorded progress and publishes the
+ * {@link StudentProgressEvent} for achievement evaluation. Called inside the transaction that
+ * records the progress, so counters and progress commit together. Activity counters (perfect
+ * scores, quick passes, time spent) are updated by the {@code AttemptWriter} statement itself,
+ * which knows whether an activity is perfect or passed quickly for the first time.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentProgressTracker {
+
+    private final StudentProgressCounterRepository counterRepository;
+    private final StudentLessonProgressRepository progressRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void activitySubmitted(UUID studentId, UUID lessonId, BigDecimal percentage, Integer timeSpentSeconds) {
+        eventPublisher.publishEvent(StudentProgressEvent.activitySubmitted(studentId, lessonId, percentage, timeSpentSeconds));
+    }
+
+    /**
+     * Same as {@link #activitySubmitted} for several attempts of one student, with a single event.
+     */
+    public void activitiesSubmitted(UUID studentId, List<AttemptRecord> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(StudentProgressEvent.batchSubmitted(studentId));
+    }
+
+    /**
+     * Marks the lesson as read. Counters only move the first time a lesson is completed; the
+     * phase check runs only then, since a repeated reading cannot complete a phase.
+     */
+    public void lessonRead(UUID studentId, UUID lessonId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (progressRepository.upsertCompleted(UUID.randomUUID(), studentId, lessonId, now) == 0) {
+            return;
+        }
+
+        int phaseCompleted = progressRepository.isPhaseCompleted(studentId, lessonId) ? 1 : 0;
+        counterRepository.increment(studentId, 1, phaseCompleted, 0, 0, 0, now);
+        eventPublisher.publishEvent(StudentProgressEvent.lessonCompleted(studentId, lessonId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * What a leaderboard counts: best scores of all time, or the points gained in the current ISO
+ * week (from Monday) or calendar month.
+ */
+public enum LeaderboardPeriod {
+    ALL_TIME,
+    WEEK,
+    MONTH;
+
+    // First day whose points count
+    public LocalDate startOn(LocalDate today) {
+        return switch (this) {
+            case WEEK -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> today.withDayOfMonth(1);
+            case ALL_TIME -> LocalDate.MIN;
+        };
+    }
+
+    // Request parameter value, e.g. "week"; absent means all time
+    public static LeaderboardPeriod from(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL_TIME;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown leaderboard period: " + value);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * Sorted set with positional access: a treap whose nodes carry their subtree size, so
+ * inserting, removing, finding an element's position and fetching the element at a position
+ * all take O(log n) expected time. The comparator must be consistent with equals. Not thread-safe.
+ */
+public final class OrderStatisticTreap<E> {
+
+    private static final class Node<E> {
+        final E value;
+        final int priority;
+        int size = 1;
+        Node<E> left;
+        Node<E> right;
+
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<E> root;
+
+    public OrderStatisticTreap(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void insert(E value) {
+        Node<E> node = new Node<>(value, random.nextInt());
+        Node<E>[] parts = split(root, value);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    public void remove(E value) {
+        root = remove(root, value);
+    }
+
+    /**
+     * Number of elements ordered before {@code value}; {@code value} itself need not be present.
+     */
+    public int indexOf(E value) {
+        int index = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Number of leading elements matching {@code predicate}, which must hold for a prefix of the
+     * order and for nothing after it.
+     */
+    public int countPrefix(Predicate<? super E> predicate) {
+        int count = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (predicate.test(node.value)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // Elements at positions [offset, offset + limit), in order
+    public List<E> slice(int offset, int limit) {
+        int end = (int) Math.min((long) offset + limit, size());
+        List<E> values = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = Math.max(0, offset); i < end; i++) {
+            values.add(get(i));
+        }
+        return values;
+    }
+
+    // Left part holds the elements ordered before value, right part the rest
+    @SuppressWarnings("unchecked")
+    private Node<E>[] split(Node<E> node, E value) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (comparator.compare(node.value, value) < 0) {
+            Node<E>[] parts = split(node.right, value);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node<E>[] parts = split(node.left, value);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    // Every element of left is ordered before every element of right
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<E> remove(Node<E> node, E value) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = comparator.compare(value, node.value);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, value);
+        } else {
+            node.right = remove(node.right, value);
+        }
+        update(node);
+        return node;
+    }
+
+    private static <E> void update(Node<E> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node<?> node) {
+        return node != null ? node.size : 0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor of the school leaderboard: the last row of a page, plus its rank and
+ * position so the next page continues the numbering without counting the rows before it.
+ */
+public record SchoolLeaderboardCursor(int totalScore, UUID studentId, int rank, int position) {
+
+    public static SchoolLeaderboardCursor after(SchoolStanding last, int rank, int position) {
+        return new SchoolLeaderboardCursor(last.totalScore(), last.studentId(), rank, position);
+    }
+
+    public String encode() {
+        String value = totalScore + ":" + studentId + ":" + rank + ":" + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SchoolLeaderboardCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new SchoolLeaderboardCursor(Integer.parseInt(parts[0]), UUID.fromString(parts[1]),
+                    Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid leaderboard cursor");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import com.filiup.Filiup.repository.StudentScoreTotalRepository;
+import com.filiup.Filiup.service.achievement.StudentProgressEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The top students of the whole school, kept in a min-heap bounded to the podium size: the
+ * weakest podium entry is at the head, so a changed student enters in O(log k) when they beat it.
+ * Seeded with one index-ordered {@code LIMIT k} query. Students changed by committed
+ * {@link StudentProgressEvent}s are re-read with one query at the next read. A podium member
+ * whose total dropped while the podium was full forces a reseed, since the heap cannot know who
+ * comes next. Changes that publish no progress event, such as a deactivation, are reported
+ * through {@link #invalidate}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchoolPodium {
+
+    private final StudentScoreTotalRepository totalRepository;
+
+    @Value("${leaderboard.school.podium-size:10}")
+    private int podiumSize;
+
+    @Value("${leaderboard.school.podium-max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    // Past this many changed students one reseed is cheaper than re-reading them
+    @Value("${leaderboard.school.podium-max-refresh:1000}")
+    private int maxRefresh;
+
+    private final Set<UUID> changed = ConcurrentHashMap.newKeySet();
+
+    private PriorityQueue<SchoolStanding> heap;
+    private final Map<UUID, SchoolStanding> members = new HashMap<>();
+    private long loadedAtNanos;
+
+    /** The podium, best first. */
+    public synchronized List<SchoolStanding> podium() {
+        if (heap == null || System.nanoTime() - loadedAtNanos > TimeUnit.SECONDS.toNanos(maxAgeSeconds)) {
+            seed();
+        } else {
+            refreshChanged();
+        }
+        List<SchoolStanding> podium = new ArrayList<>(heap);
+        podium.sort(SchoolStanding.LEADERBOARD_ORDER);
+        return podium;
+    }
+
+    /** Number of places on the podium. */
+    public int size() {
+        return podiumSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProgress(StudentProgressEvent event) {
+        changed.add(event.studentId());
+    }
+
+    /**
+     * Re-reads the student at the next read once the current transaction commits, e.g. after
+     * they were deactivated, renamed or moved to another section.
+     */
+    public void invalidate(UUID studentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.add(studentId);
+                }
+            });
+        } else {
+            changed.add(studentId);
+        }
+    }
+
+    // Changes committed before the clear are visible to the query; later ones stay in changed
+    private void seed() {
+        changed.clear();
+        heap = new PriorityQueue<>(podiumSize + 1, SchoolStanding.LEADERBOARD_ORDER.reversed());
+        members.clear();
+        for (Object[] row : totalRepository.findTop(podiumSize)) {
+            offer(SchoolStanding.fromRow(row));
+        }
+        loadedAtNanos = System.nanoTime();
+        log.debug("Seeded school podium with {} students", heap.size());
+    }
+
+    private void refreshChanged() {
+        List<UUID> studentIds = new ArrayList<>();
+        for (Iterator<UUID> it = changed.iterator(); it.hasNext() && studentIds.size() <= maxRefresh; ) {
+            UUID studentId = it.next();
+            it.remove();
+            studentIds.add(studentId);
+        }
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        if (studentIds.size() > maxRefresh) {
+            seed();
+            return;
+        }
+
+        Map<UUID, SchoolStanding> current = new HashMap<>();
+        try {
+            for (Object[] row : totalRepository.findByStudentIds(studentIds)) {
+                SchoolStanding standing = SchoolStanding.fromRow(row);
+                current.put(standing.studentId(), standing);
+            }
+        } catch (RuntimeException e) {
+            changed.addAll(studentIds);
+            throw e;
+        }
+
+        boolean full = heap.size() >= podiumSize;
+        for (UUID studentId : studentIds) {
+            SchoolStanding now = current.get(studentId);
+            SchoolStanding was = members.remove(studentId);
+            if (was != null) {
+                heap.remove(was);
+                if (full && (now == null || SchoolStanding.LEADERBOARD_ORDER.compare(now, was) > 0)) {
+                    seed();
+                    return;
+                }
+            }
+            if (now != null) {
+                offer(now);
+            }
+        }
+    }
+
+    private void offer(SchoolStanding standing) {
+        if (heap.size() >= podiumSize) {
+            SchoolStanding weakest = heap.peek();
+            if (SchoolStanding.LEADERBOARD_ORDER.compare(standing, weakest) >= 0) {
+                return;
+            }
+            heap.poll();
+            members.remove(weakest.studentId());
+        }
+        heap.add(standing);
+        members.put(standing.studentId(), standing);
+    }
+}
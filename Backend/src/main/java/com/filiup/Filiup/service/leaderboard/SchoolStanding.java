@@ -0,0 +1,30 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A student's line on the school-wide leaderboard, read from {@code student_score_totals}.
+ */
+public record SchoolStanding(UUID studentId, String name, String sectionName, int totalScore,
+                             int activitiesCompleted) {
+
+    /**
+     * Highest total first, ties by descending id. Ids compare as unsigned bytes, as Postgres
+     * orders {@code uuid}, so this matches the {@code ORDER BY} of the leaderboard queries.
+     */
+    public static final Comparator<SchoolStanding> LEADERBOARD_ORDER = Comparator
+            .comparingInt(SchoolStanding::totalScore)
+            .thenComparing(SchoolStanding::studentId, SchoolStanding::compareUuids)
+            .reversed();
+
+    public static SchoolStanding fromRow(Object[] row) {
+        return new SchoolStanding((UUID) row[0], (String) row[1], (String) row[2], ((Number) row[3]).intValue(),
+                ((Number) row[4]).intValue());
+    }
+
+    private static int compareUuids(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,244 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import com.filiup.Filiup.repository.StudentBestAttemptRepository;
+import com.filiup.Filiup.service.achievement.StudentProgressEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory leaderboard per section, kept in an {@link OrderStatisticTreap} so pages and a single
+ * student's rank are read without sorting. A section is seeded with one aggregate query on first
+ * use. After that, every committed {@link StudentProgressEvent} marks the student as changed, and
+ * the next read refreshes all changed students of the section with one query. Membership changes
+ * drop the section; a maximum age also picks up progress recorded on other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SectionLeaderboardIndex {
+
+    private final StudentBestAttemptRepository bestAttemptRepository;
+
+    @Value("${leaderboard.index.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${leaderboard.index.max-sections:1000}")
+    private int maxSections;
+
+    private final ConcurrentHashMap<UUID, Board> boards = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Board> boardsByStudent = new ConcurrentHashMap<>();
+
+    // Students changed while a section was being seeded; the seed may have read their old standing
+    private final Object seedLock = new Object();
+    private final Set<UUID> changedDuringSeed = ConcurrentHashMap.newKeySet();
+    private volatile int seedsInFlight;
+
+    /** Every student of the section, best first. */
+    public List<StudentStanding> standings(UUID sectionId) {
+        return page(sectionId, 0, Integer.MAX_VALUE);
+    }
+
+    public List<StudentStanding> page(UUID sectionId, int offset, int limit) {
+        Board board = board(sectionId);
+        synchronized (board) {
+            return board.ranking.slice(offset, limit);
+        }
+    }
+
+    /**
+     * The student's rank in the section: one more than the number of classmates with a strictly
+     * higher total, so ties share a rank. Empty if the student is not in the section.
+     */
+    public OptionalInt rankOf(UUID sectionId, UUID studentId) {
+        Board board = board(sectionId);
+        synchronized (board) {
+            StudentStanding standing = board.byStudent.get(studentId);
+            if (standing == null) {
+                return OptionalInt.empty();
+            }
+            return OptionalInt.of(board.ranking.countPrefix(other -> other.totalScore() > standing.totalScore()) + 1);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProgress(StudentProgressEvent event) {
+        if (seedsInFlight > 0) {
+            changedDuringSeed.add(event.studentId());
+        }
+        Board board = boardsByStudent.get(event.studentId());
+        if (board != null) {
+            synchronized (board) {
+                board.changed.add(event.studentId());
+            }
+        }
+    }
+
+    /**
+     * Drops the section's leaderboard once the current transaction completes, e.g. after
+     * students joined or left it, so the next read seeds it from the committed membership.
+     */
+    public void invalidate(UUID sectionId) {
+        if (sectionId == null) {
+            return;
+        }
+        drop(sectionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(sectionId);
+                }
+            });
+        }
+    }
+
+    private Board board(UUID sectionId) {
+        Board board = boards.get(sectionId);
+        if (board == null || board.isOlderThan(maxAgeSeconds)) {
+            board = seed(sectionId);
+        }
+        refreshChanged(sectionId, board);
+        return board;
+    }
+
+    private Board seed(UUID sectionId) {
+        synchronized (seedLock) {
+            seedsInFlight++;
+        }
+        Board board = new Board();
+        try {
+            for (Object[] row : bestAttemptRepository.findSectionStandings(sectionId)) {
+                board.put(StudentStanding.fromRow(row));
+            }
+            publish(sectionId, board);
+        } finally {
+            synchronized (seedLock) {
+                if (--seedsInFlight == 0) {
+                    changedDuringSeed.clear();
+                }
+            }
+        }
+        log.debug("Seeded leaderboard of section {} with {} students", sectionId, board.byStudent.size());
+        return board;
+    }
+
+    // Runs before the seed count drops, so a change is either seen here or routed to the board
+    private void publish(UUID sectionId, Board board) {
+        synchronized (board) {
+            for (UUID studentId : board.byStudent.keySet()) {
+                boardsByStudent.put(studentId, board);
+                if (changedDuringSeed.contains(studentId)) {
+                    board.changed.add(studentId);
+                }
+            }
+        }
+        if (boards.size() >= maxSections && !boards.containsKey(sectionId)) {
+            evictOldest();
+        }
+        Board previous = boards.put(sectionId, board);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    private void refreshChanged(UUID sectionId, Board board) {
+        Set<UUID> changed;
+        synchronized (board) {
+            if (board.changed.isEmpty()) {
+                return;
+            }
+            changed = new HashSet<>(board.changed);
+            board.changed.clear();
+        }
+
+        List<Object[]> rows;
+        try {
+            rows = bestAttemptRepository.findSectionStandings(sectionId, changed);
+        } catch (RuntimeException e) {
+            synchronized (board) {
+                board.changed.addAll(changed);
+            }
+            throw e;
+        }
+        synchronized (board) {
+            Set<UUID> left = new HashSet<>(changed);
+            for (Object[] row : rows) {
+                StudentStanding standing = StudentStanding.fromRow(row);
+                left.remove(standing.studentId());
+                board.put(standing);
+            }
+            left.forEach(board::remove);
+        }
+    }
+
+    // Drops the section loaded longest ago; it is the next one due for a reseed anyway
+    private void evictOldest() {
+        UUID oldest = null;
+        long oldestLoadedAt = 0;
+        for (Map.Entry<UUID, Board> entry : boards.entrySet()) {
+            long loadedAt = entry.getValue().loadedAtNanos;
+            if (oldest == null || loadedAt - oldestLoadedAt < 0) {
+                oldest = entry.getKey();
+                oldestLoadedAt = loadedAt;
+            }
+        }
+        if (oldest != null) {
+            drop(oldest);
+        }
+    }
+
+    private void drop(UUID sectionId) {
+        Board board = boards.remove(sectionId);
+        if (board != null) {
+            unlink(board);
+        }
+    }
+
+    private void unlink(Board board) {
+        synchronized (board) {
+            board.byStudent.keySet().forEach(studentId -> boardsByStudent.remove(studentId, board));
+        }
+    }
+
+    private static final class Board {
+        final long loadedAtNanos = System.nanoTime();
+        final Map<UUID, StudentStanding> byStudent = new HashMap<>();
+        final OrderStatisticTreap<StudentStanding> ranking = new OrderStatisticTreap<>(StudentStanding.LEADERBOARD_ORDER);
+        final Set<UUID> changed = new HashSet<>();
+
+        void put(StudentStanding standing) {
+            StudentStanding previous = byStudent.put(standing.studentId(), standing);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            ranking.insert(standing);
+        }
+
+        void remove(UUID studentId) {
+            StudentStanding previous = byStudent.remove(studentId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+        }
+
+        boolean isOlderThan(long seconds) {
+            return System.nanoTime() - loadedAtNanos > TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
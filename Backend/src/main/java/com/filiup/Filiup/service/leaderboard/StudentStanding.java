@@ -0,0 +1,28 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A student's leaderboard line: the sum of their best score per activity, the number of
+ * activities attempted, the average of those best percentages and the lessons completed.
+ */
+public record StudentStanding(UUID studentId, String name, int totalScore, int activitiesCompleted,
+                              double averageScore, int lessonsCompleted) {
+
+    /** Highest total first; ties are listed by name. */
+    public static final Comparator<StudentStanding> LEADERBOARD_ORDER = Comparator
+            .comparingInt(StudentStanding::totalScore).reversed()
+            .thenComparing(StudentStanding::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(StudentStanding::studentId);
+
+    public StudentStanding withTotalScore(int totalScore) {
+        return new StudentStanding(studentId, name, totalScore, activitiesCompleted, averageScore, lessonsCompleted);
+    }
+
+    static StudentStanding fromRow(Object[] row) {
+        return new StudentStanding((UUID) row[0], (String) row[1], ((Number) row[2]).intValue(),
+                ((Number) row[3]).intValue(), row[4] != null ? ((Number) row[4]).doubleValue() : 0.0,
+                ((Number) row[5]).intValue());
+    }
+}
@@ -0,0 +1,151 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.Activity;
+import com.filiup.Filiup.entity.ActivityType;
+import com.filiup.Filiup.entity.DragDropItem;
+import com.filiup.Filiup.entity.MatchingPair;
+import com.filiup.Filiup.entity.Question;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, precompiled answer key of one activity: everything needed to score a submission
+ * without touching the activity's entity collections or its content JSON.
+ */
+public final class AnswerKey {
+
+    // Stored for questions without a valid correct index; no submitted answer can match it
+    public static final int NO_CORRECT_INDEX = Integer.MIN_VALUE;
+
+    private final UUID activityId;
+    private final UUID lessonId;
+    private final ActivityType activityType;
+    // MULTIPLE_CHOICE / STORY_COMPREHENSION: correct option index per question
+    private final int[] correctIndices;
+    // DRAG_DROP: expected category per item; MATCHING_PAIRS: expected right-side ID per pair
+    private final String[] expectedValues;
+
+    private AnswerKey(UUID activityId, UUID lessonId, ActivityType activityType,
+                      int[] correctIndices, String[] expectedValues) {
+        this.activityId = activityId;
+        this.lessonId = lessonId;
+        this.activityType = activityType;
+        this.correctIndices = correctIndices;
+        this.expectedValues = expectedValues;
+    }
+
+    /**
+     * Builds the key from the activity's content entities, falling back to the legacy
+     * {@code content} map when the activity has none.
+     */
+    public static AnswerKey compile(Activity activity) {
+        UUID lessonId = activity.getLesson() != null ? activity.getLesson().getId() : null;
+        ActivityType type = activity.getActivityType();
+
+        return switch (type) {
+            case MULTIPLE_CHOICE, STORY_COMPREHENSION -> new AnswerKey(activity.getId(), lessonId, type,
+                    compileQuestions(activity), null);
+            case DRAG_DROP -> new AnswerKey(activity.getId(), lessonId, type, null, compileDragDrop(activity));
+            case MATCHING_PAIRS -> new AnswerKey(activity.getId(), lessonId, type, null, compileMatching(activity));
+        };
+    }
+
+    public UUID getActivityId() {
+        return activityId;
+    }
+
+    public UUID getLessonId() {
+        return lessonId;
+    }
+
+    public ActivityType getActivityType() {
+        return activityType;
+    }
+
+    public int size() {
+        return correctIndices != null ? correctIndices.length : expectedValues.length;
+    }
+
+    public int correctIndex(int question) {
+        return correctIndices[question];
+    }
+
+    public String expectedValue(int item) {
+        return expectedValues[item];
+    }
+
+    private static int[] compileQuestions(Activity activity) {
+        if (!activity.getQuestions().isEmpty()) {
+            List<Question> questions = activity.getQuestions();
+            int[] indices = new int[questions.size()];
+            for (int i = 0; i < indices.length; i++) {
+                Integer correct = questions.get(i).getCorrectAnswerIndex();
+                indices[i] = correct != null ? correct : NO_CORRECT_INDEX;
+            }
+            return indices;
+        }
+
+        List<?> questions = contentList(activity, "questions");
+        int[] indices = new int[questions.size()];
+        for (int i = 0; i < indices.length; i++) {
+            Object correct = questions.get(i) instanceof Map<?, ?> question ? question.get("correctAnswerIndex") : null;
+            indices[i] = correct instanceof Number number ? number.intValue() : NO_CORRECT_INDEX;
+        }
+        return indices;
+    }
+
+    private static String[] compileDragDrop(Activity activity) {
+        // Items of the same category share one String instance
+        Map<String, String> categories = new HashMap<>();
+
+        if (!activity.getDragDropItems().isEmpty()) {
+            List<DragDropItem> items = activity.getDragDropItems();
+            String[] expected = new String[items.size()];
+            for (int i = 0; i < expected.length; i++) {
+                String category = items.get(i).getCorrectCategory();
+                expected[i] = category != null ? categories.computeIfAbsent(category, c -> c) : null;
+            }
+            return expected;
+        }
+
+        List<?> items = contentList(activity, "dragDropItems");
+        String[] expected = new String[items.size()];
+        for (int i = 0; i < expected.length; i++) {
+            // JSON payload uses "correctCategory" for the expected category id
+            Object category = items.get(i) instanceof Map<?, ?> item ? item.get("correctCategory") : null;
+            expected[i] = category instanceof String value ? categories.computeIfAbsent(value, c -> c) : null;
+        }
+        return expected;
+    }
+
+    private static String[] compileMatching(Activity activity) {
+        // Answers are right-side IDs aligned to the left pairs order; a pair matches its own ID
+        if (!activity.getMatchingPairs().isEmpty()) {
+            List<MatchingPair> pairs = activity.getMatchingPairs();
+            String[] expected = new String[pairs.size()];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = pairs.get(i).getId().toString();
+            }
+            return expected;
+        }
+
+        List<?> pairs = contentList(activity, "matchingPairs");
+        String[] expected = new String[pairs.size()];
+        for (int i = 0; i < expected.length; i++) {
+            Object id = pairs.get(i) instanceof Map<?, ?> pair ? pair.get("id") : null;
+            expected[i] = id instanceof String value ? value : null;
+        }
+        return expected;
+    }
+
+    private static List<?> contentList(Activity activity, String key) {
+        Map<String, Object> content = activity.getContent();
+        if (content != null && content.get(key) instanceof List<?> list) {
+            return list;
+        }
+        return List.of();
+    }
+}
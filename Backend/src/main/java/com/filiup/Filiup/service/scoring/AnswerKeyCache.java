@@ -0,0 +1,75 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.Activity;
+import com.filiup.Filiup.repository.ActivityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of compiled {@link AnswerKey}s. An activity's content is only read from the
+ * database the first time it is scored after startup or after it was changed.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnswerKeyCache {
+
+    private final ActivityRepository activityRepository;
+
+    @Value("${scoring.answer-key-cache.max-size:5000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<UUID, AnswerKey> keys = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the answer key of the activity, compiling it on a miss. Must be called inside a
+     * transaction on a miss, since compiling reads the activity's lazy content collections.
+     */
+    public AnswerKey get(UUID activityId) {
+        AnswerKey key = keys.get(activityId);
+        if (key != null) {
+            return key;
+        }
+
+        Activity activity = activityRepository.findById(activityId)
+                .orElseThrow(() -> new RuntimeException("Activity not found"));
+        key = AnswerKey.compile(activity);
+
+        if (keys.size() >= maxSize) {
+            keys.clear();
+        }
+        keys.put(activityId, key);
+        return key;
+    }
+
+    /**
+     * Drops the activity's key now and again after the current transaction completes, so a
+     * submission racing with the update cannot re-cache the old content.
+     */
+    public void invalidate(UUID activityId) {
+        keys.remove(activityId);
+        afterCompletion(() -> keys.remove(activityId));
+    }
+
+    // Used when lessons or phases are deleted, which cascades to their activities
+    public void invalidateAll() {
+        keys.clear();
+        afterCompletion(keys::clear);
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.ActivityType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Multiple choice and story comprehension: one option index per question.
+ */
+@Component
+public class ChoiceScorer implements Scorer {
+
+    @Override
+    public Set<ActivityType> activityTypes() {
+        return EnumSet.of(ActivityType.MULTIPLE_CHOICE, ActivityType.STORY_COMPREHENSION);
+    }
+
+    @Override
+    public ScoreResult score(AnswerKey key, SubmittedAnswers answers) {
+        int total = key.size();
+        if (answers.kind() == SubmittedAnswers.Kind.NONE) {
+            return new ScoreResult(0, total);
+        }
+        if (answers.kind() != SubmittedAnswers.Kind.INDICES) {
+            throw new RuntimeException("Invalid answer format: expected option indices");
+        }
+
+        int[] indices = answers.indices();
+        int count = Math.min(total, indices.length);
+        int score = 0;
+        for (int i = 0; i < count; i++) {
+            if (indices[i] == key.correctIndex(i)) {
+                score++;
+            }
+        }
+        return new ScoreResult(score, total);
+    }
+}
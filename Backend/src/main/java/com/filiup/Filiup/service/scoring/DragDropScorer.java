@@ -0,0 +1,24 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.ActivityType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Drag and drop: one category ID per item, in item order.
+ */
+@Component
+public class DragDropScorer implements Scorer {
+
+    @Override
+    public Set<ActivityType> activityTypes() {
+        return EnumSet.of(ActivityType.DRAG_DROP);
+    }
+
+    @Override
+    public ScoreResult score(AnswerKey key, SubmittedAnswers answers) {
+        return ValueMatching.score(key, answers, "category IDs");
+    }
+}
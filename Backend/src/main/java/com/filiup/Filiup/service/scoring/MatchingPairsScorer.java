@@ -0,0 +1,24 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.ActivityType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Matching pairs: the chosen right-side ID for each left item, in pair order.
+ */
+@Component
+public class MatchingPairsScorer implements Scorer {
+
+    @Override
+    public Set<ActivityType> activityTypes() {
+        return EnumSet.of(ActivityType.MATCHING_PAIRS);
+    }
+
+    @Override
+    public ScoreResult score(AnswerKey key, SubmittedAnswers answers) {
+        return ValueMatching.score(key, answers, "pair IDs");
+    }
+}
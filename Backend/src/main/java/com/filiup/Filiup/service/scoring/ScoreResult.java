@@ -0,0 +1,18 @@
+package com.filiup.Filiup.service.scoring;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Outcome of scoring one submission.
+ */
+public record ScoreResult(int score, int totalQuestions) {
+
+    public BigDecimal percentage() {
+        if (totalQuestions == 0) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+        return BigDecimal.valueOf((score * 100.0) / totalQuestions)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
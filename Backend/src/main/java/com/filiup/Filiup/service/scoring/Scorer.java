@@ -0,0 +1,20 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.ActivityType;
+
+import java.util.Set;
+
+/**
+ * Scoring strategy for one or more activity types. Implementations are stateless Spring beans
+ * collected by {@link ScoringEngine}.
+ */
+public interface Scorer {
+
+    Set<ActivityType> activityTypes();
+
+    /**
+     * Scores the answers against the key. Answers beyond the key are ignored; throws if the
+     * answers are of the wrong kind for this activity type.
+     */
+    ScoreResult score(AnswerKey key, SubmittedAnswers answers);
+}
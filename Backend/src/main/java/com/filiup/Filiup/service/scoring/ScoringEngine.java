@@ -0,0 +1,35 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.ActivityType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Dispatches a submission to the {@link Scorer} registered for the activity's type.
+ */
+@Component
+public class ScoringEngine {
+
+    private final EnumMap<ActivityType, Scorer> scorers = new EnumMap<>(ActivityType.class);
+
+    public ScoringEngine(List<Scorer> scorers) {
+        for (Scorer scorer : scorers) {
+            for (ActivityType type : scorer.activityTypes()) {
+                if (this.scorers.put(type, scorer) != null) {
+                    throw new IllegalStateException("More than one scorer registered for " + type);
+                }
+            }
+        }
+        for (ActivityType type : ActivityType.values()) {
+            if (!this.scorers.containsKey(type)) {
+                throw new IllegalStateException("No scorer registered for " + type);
+            }
+        }
+    }
+
+    public ScoreResult score(AnswerKey key, SubmittedAnswers answers) {
+        return scorers.get(key.getActivityType()).score(key, answers);
+    }
+}
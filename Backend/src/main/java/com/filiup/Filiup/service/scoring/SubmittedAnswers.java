@@ -0,0 +1,133 @@
+package com.filiup.Filiup.service.scoring;
+
+import java.util.List;
+
+/**
+ * Validated, typed copy of the submitted answers. The request's JSON list is checked once for
+ * malformed input (mixed kinds, nested values, fractional or negative indices) before the submission
+ * touches the database, and decoded into an {@code int[]} of option indices or a
+ * {@code String[]} of IDs, so scorers compare plain array elements without casts or unboxing.
+ */
+public final class SubmittedAnswers {
+
+    // Index reported for a question left unanswered (JSON null); never equal to a correct index
+    public static final int UNANSWERED = Integer.MIN_VALUE + 1;
+
+    public static final int MAX_ANSWERS = 1000;
+
+    public enum Kind {
+        // Nothing answered: empty list or only nulls
+        NONE,
+        // Option indices (multiple choice, story comprehension)
+        INDICES,
+        // String IDs (drag-and-drop categories, matching pair IDs)
+        VALUES
+    }
+
+    private static final SubmittedAnswers EMPTY = new SubmittedAnswers(Kind.NONE, 0, null, null);
+
+    private final Kind kind;
+    private final int size;
+    private final int[] indices;
+    private final String[] values;
+
+    private SubmittedAnswers(Kind kind, int size, int[] indices, String[] values) {
+        this.kind = kind;
+        this.size = size;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    public static SubmittedAnswers of(List<?> answers) {
+        if (answers == null || answers.isEmpty()) {
+            return EMPTY;
+        }
+        if (answers.size() > MAX_ANSWERS) {
+            throw new RuntimeException("Too many answers submitted");
+        }
+
+        Kind kind = Kind.NONE;
+        for (int i = 0, size = answers.size(); i < size; i++) {
+            Object answer = answers.get(i);
+            Kind answerKind;
+            if (answer == null) {
+                continue;
+            } else if (answer instanceof Number number) {
+                if (!isOptionIndex(number)) {
+                    throw new RuntimeException("Invalid answer format: option indices must be non-negative whole numbers");
+                }
+                answerKind = Kind.INDICES;
+            } else if (answer instanceof String) {
+                answerKind = Kind.VALUES;
+            } else {
+                throw new RuntimeException("Invalid answer format: answers must be numbers or strings");
+            }
+            if (kind != Kind.NONE && kind != answerKind) {
+                throw new RuntimeException("Invalid answer format: answers mix numbers and strings");
+            }
+            kind = answerKind;
+        }
+
+        int size = answers.size();
+        switch (kind) {
+            case INDICES -> {
+                int[] indices = new int[size];
+                for (int i = 0; i < size; i++) {
+                    Object answer = answers.get(i);
+                    indices[i] = answer != null ? ((Number) answer).intValue() : UNANSWERED;
+                }
+                return new SubmittedAnswers(kind, size, indices, null);
+            }
+            case VALUES -> {
+                String[] values = new String[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = (String) answers.get(i);
+                }
+                return new SubmittedAnswers(kind, size, null, values);
+            }
+            default -> {
+                return new SubmittedAnswers(kind, size, null, null);
+            }
+        }
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The option indices, {@link #UNANSWERED} for unanswered questions. Only valid when kind()
+     * is INDICES; the array is shared, not copied, and must not be modified.
+     */
+    public int[] indices() {
+        if (kind != Kind.INDICES) {
+            throw new IllegalStateException("Answers are not option indices");
+        }
+        return indices;
+    }
+
+    /**
+     * The submitted IDs, null for unanswered items. Only valid when kind() is VALUES; the array
+     * is shared, not copied, and must not be modified.
+     */
+    public String[] values() {
+        if (kind != Kind.VALUES) {
+            throw new IllegalStateException("Answers are not IDs");
+        }
+        return values;
+    }
+
+    // Negative values are refused so a submission can never equal UNANSWERED or NO_CORRECT_INDEX
+    private static boolean isOptionIndex(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            long value = number.longValue();
+            return value >= 0 && value <= Integer.MAX_VALUE;
+        }
+        double value = number.doubleValue();
+        return value == Math.rint(value) && value >= 0 && value <= Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,32 @@
+package com.filiup.Filiup.service.scoring;
+
+/**
+ * Position-by-position comparison of submitted string IDs with the key's expected values,
+ * shared by the drag-and-drop and matching-pairs scorers.
+ */
+final class ValueMatching {
+
+    private ValueMatching() {
+    }
+
+    static ScoreResult score(AnswerKey key, SubmittedAnswers answers, String expected) {
+        int total = key.size();
+        if (answers.kind() == SubmittedAnswers.Kind.NONE) {
+            return new ScoreResult(0, total);
+        }
+        if (answers.kind() != SubmittedAnswers.Kind.VALUES) {
+            throw new RuntimeException("Invalid answer format: expected " + expected);
+        }
+
+        String[] values = answers.values();
+        int count = Math.min(total, values.length);
+        int score = 0;
+        for (int i = 0; i < count; i++) {
+            String answer = values[i];
+            if (answer != null && answer.equals(key.expectedValue(i))) {
+                score++;
+            }
+        }
+        return new ScoreResult(score, total);
+    }
+}
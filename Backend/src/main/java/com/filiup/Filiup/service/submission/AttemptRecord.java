@@ -0,0 +1,14 @@
+package com.filiup.Filiup.service.submission;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A scored attempt ready to be written.
+ *
+ * @param answersJson the {@code {"answers": [...]}} document stored in the attempt's jsonb column
+ */
+public record AttemptRecord(UUID studentId, UUID activityId, int score, int totalQuestions, BigDecimal percentage,
+                            Integer timeSpentSeconds, String answersJson, LocalDateTime completedAt) {
+}
@@ -0,0 +1,122 @@
+package com.filiup.Filiup.service.submission;
+
+import com.filiup.Filiup.service.achievement.AchievementRule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes scored attempts: each one is appended to the attempt history and, in the same
+ * statement, merged into the student's {@code student_best_attempts} row for the activity, their
+ * {@code student_score_totals} row, their {@code student_score_buckets} row for the day and their
+ * {@code student_progress_counters}. Perfect scores and quick passes are counted once per activity,
+ * however often it is resubmitted. Several attempts go to the database as one JDBC batch. Runs in the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttemptWriter {
+
+    // Conditions on the attempt CTE's columns; the thresholds are the ones of AchievementRule
+    private static final String PERFECT_SQL = "(percentage = " + AchievementRule.PERFECT_PERCENTAGE + ")";
+    private static final String QUICK_PASS_SQL = "COALESCE(percentage >= " + AchievementRule.QUICK_PASS_MIN_PERCENTAGE +
+            " AND time_spent_seconds <= " + AchievementRule.QUICK_PASS_MAX_SECONDS + ", false)";
+
+    // Appends the attempt, folds it into the best-attempt row and adds the change of the best score
+    // to the student's total and to their bucket for the completion day, in one statement. SET expressions
+    // see the previous best row, so a strictly higher percentage replaces it, ties keep the earlier one,
+    // and score_delta is what the total gains. perfect_delta and quick_pass_delta are 1 only for the
+    // first perfect or quick attempt of the activity, so the progress counters count activities.
+    private static final String RECORD_ATTEMPT_SQL =
+            "WITH attempt AS (" +
+            "INSERT INTO student_activity_attempts " +
+            "(id, student_id, activity_id, score, total_questions, percentage, time_spent_seconds, answers, completed_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?) " +
+            "RETURNING id, student_id, activity_id, score, total_questions, percentage, time_spent_seconds, completed_at), " +
+            "merged AS (" +
+            "INSERT INTO student_best_attempts AS best " +
+            "(id, student_id, activity_id, attempt_id, score, total_questions, percentage, time_spent_seconds, " +
+            "completed_at, attempts_count, updated_at, score_delta, perfect, quick_pass, perfect_delta, quick_pass_delta) " +
+            "SELECT ?, student_id, activity_id, id, score, total_questions, percentage, time_spent_seconds, " +
+            "completed_at, 1, completed_at, score, " + PERFECT_SQL + ", " + QUICK_PASS_SQL + ", " +
+            "CASE WHEN " + PERFECT_SQL + " THEN 1 ELSE 0 END, CASE WHEN " + QUICK_PASS_SQL + " THEN 1 ELSE 0 END FROM attempt " +
+            "ON CONFLICT (student_id, activity_id) DO UPDATE SET " +
+            "attempt_id = CASE WHEN EXCLUDED.percentage > best.percentage THEN EXCLUDED.attempt_id ELSE best.attempt_id END, " +
+            "score = CASE WHEN EXCLUDED.percentage > best.percentage THEN EXCLUDED.score ELSE best.score END, " +
+            "total_questions = CASE WHEN EXCLUDED.percentage > best.percentage THEN EXCLUDED.total_questions ELSE best.total_questions END, " +
+            "time_spent_seconds = CASE WHEN EXCLUDED.percentage > best.percentage THEN EXCLUDED.time_spent_seconds ELSE best.time_spent_seconds END, " +
+            "completed_at = CASE WHEN EXCLUDED.percentage > best.percentage THEN EXCLUDED.completed_at ELSE best.completed_at END, " +
+            "percentage = GREATEST(EXCLUDED.percentage, best.percentage), " +
+            "score_delta = CASE WHEN EXCLUDED.percentage > best.percentage THEN EXCLUDED.score - best.score ELSE 0 END, " +
+            "perfect = best.perfect OR EXCLUDED.perfect, " +
+            "quick_pass = best.quick_pass OR EXCLUDED.quick_pass, " +
+            "perfect_delta = CASE WHEN EXCLUDED.perfect AND NOT best.perfect THEN 1 ELSE 0 END, " +
+            "quick_pass_delta = CASE WHEN EXCLUDED.quick_pass AND NOT best.quick_pass THEN 1 ELSE 0 END, " +
+            "attempts_count = best.attempts_count + 1, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING student_id, score_delta, perfect_delta, quick_pass_delta, attempts_count, updated_at), " +
+            "bucket AS (" +
+            "INSERT INTO student_score_buckets AS buckets (id, student_id, bucket_date, score) " +
+            "SELECT ?, student_id, CAST(updated_at AS DATE), score_delta FROM merged WHERE score_delta <> 0 " +
+            "ON CONFLICT (student_id, bucket_date) DO UPDATE SET score = buckets.score + EXCLUDED.score), " +
+            "progress AS (" +
+            "INSERT INTO student_progress_counters AS counters " +
+            "(student_id, perfect_scores, quick_passes, time_spent_seconds, updated_at) " +
+            "SELECT merged.student_id, merged.perfect_delta, merged.quick_pass_delta, " +
+            "GREATEST(COALESCE(attempt.time_spent_seconds, 0), 0), merged.updated_at FROM merged, attempt " +
+            "ON CONFLICT (student_id) DO UPDATE SET " +
+            "perfect_scores = counters.perfect_scores + EXCLUDED.perfect_scores, " +
+            "quick_passes = counters.quick_passes + EXCLUDED.quick_passes, " +
+            "time_spent_seconds = counters.time_spent_seconds + EXCLUDED.time_spent_seconds, " +
+            "updated_at = EXCLUDED.updated_at) " +
+            // A first attempt (attempts_count = 1) is a newly completed activity
+            "INSERT INTO student_score_totals AS totals (student_id, total_score, activities_completed, updated_at) " +
+            "SELECT student_id, score_delta, CASE WHEN attempts_count = 1 THEN 1 ELSE 0 END, updated_at FROM merged " +
+            "ON CONFLICT (student_id) DO UPDATE SET " +
+            "total_score = totals.total_score + EXCLUDED.total_score, " +
+            "activities_completed = totals.activities_completed + EXCLUDED.activities_completed, " +
+            "updated_at = GREATEST(totals.updated_at, EXCLUDED.updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void write(AttemptRecord attempt) {
+        jdbcTemplate.update(RECORD_ATTEMPT_SQL, ps -> bind(ps, attempt));
+    }
+
+    /**
+     * Writes the attempts in order; when two target the same activity, a later one only replaces
+     * the best attempt if it scored strictly higher.
+     */
+    public void writeAll(List<AttemptRecord> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RECORD_ATTEMPT_SQL, attempts, attempts.size(), AttemptWriter::bind);
+    }
+
+    private static void bind(PreparedStatement ps, AttemptRecord attempt) throws SQLException {
+        Timestamp completedAt = Timestamp.valueOf(attempt.completedAt());
+        ps.setObject(1, UUID.randomUUID());
+        ps.setObject(2, attempt.studentId());
+        ps.setObject(3, attempt.activityId());
+        ps.setInt(4, attempt.score());
+        ps.setInt(5, attempt.totalQuestions());
+        ps.setBigDecimal(6, attempt.percentage());
+        if (attempt.timeSpentSeconds() != null) {
+            ps.setInt(7, attempt.timeSpentSeconds());
+        } else {
+            ps.setNull(7, Types.INTEGER);
+        }
+        ps.setString(8, attempt.answersJson());
+        ps.setTimestamp(9, completedAt);
+        ps.setTimestamp(10, completedAt);
+        ps.setObject(11, UUID.randomUUID());
+        ps.setObject(12, UUID.randomUUID());
+    }
+}
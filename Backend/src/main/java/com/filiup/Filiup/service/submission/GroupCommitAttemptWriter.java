@@ -0,0 +1,132 @@
+package com.filiup.Filiup.service.submission;
+
+import com.filiup.Filiup.service.achievement.StudentProgressTracker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional group-commit mode for activity submissions
+ * ({@code student.submissions.group-commit.enabled}). Scored attempts from concurrent requests
+ * are written by one thread, many per transaction: one JDBC batch for the attempts, one counter
+ * update per student and the idempotency responses. Callers block until their batch commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GroupCommitAttemptWriter {
+
+    private final AttemptWriter attemptWriter;
+    private final StudentProgressTracker progressTracker;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${student.submissions.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.submissions.group-commit.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Value("${student.submissions.group-commit.batch-size:200}")
+    private int batchSize;
+
+    // Extra wait for attempts to join a transaction; 0 batches whatever queued during the last commit
+    @Value("${student.submissions.group-commit.max-delay-micros:0}")
+    private long maxDelayMicros;
+
+    @Value("${student.submissions.group-commit.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    private GroupCommitQueue<PreparedSubmission> queue;
+    private TransactionTemplate transactionTemplate;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        batchSizes = DistributionSummary.builder("submissions.group-commit.batch-size")
+                .description("Attempts written per group-commit transaction")
+                .register(meterRegistry);
+        queue = new GroupCommitQueue<>("attempt-group-commit", queueCapacity, batchSize, maxDelayMicros, this::writeBatch);
+        log.info("Group commit enabled for activity submissions (batch size {}, max delay {} µs)", batchSize, maxDelayMicros);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (queue != null) {
+            queue.shutdown(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the submission and waits until the transaction holding it has committed. A failed
+     * write releases the submission's idempotency key so the client can retry it.
+     */
+    public void write(PreparedSubmission submission) {
+        try {
+            queue.submit(submission).get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            release(submission);
+            throw new RuntimeException("Submission could not be recorded", e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or in flight: keep the key claimed so a retry does not record it twice
+            throw new RuntimeException("Submission is taking longer than expected; retry with the same Idempotency-Key");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while recording submission", e);
+        }
+    }
+
+    private void writeBatch(List<PreparedSubmission> submissions) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<AttemptRecord> attempts = new ArrayList<>(submissions.size());
+            Map<UUID, List<AttemptRecord>> attemptsByStudent = new LinkedHashMap<>();
+            for (PreparedSubmission submission : submissions) {
+                AttemptRecord attempt = submission.attempt();
+                attempts.add(attempt);
+                attemptsByStudent.computeIfAbsent(attempt.studentId(), id -> new ArrayList<>()).add(attempt);
+            }
+
+            attemptWriter.writeAll(attempts);
+            attemptsByStudent.forEach(progressTracker::activitiesSubmitted);
+            for (PreparedSubmission submission : submissions) {
+                if (submission.idempotencyKey() != null) {
+                    AttemptRecord attempt = submission.attempt();
+                    idempotencyKeyStore.complete(attempt.studentId(), submission.idempotencyKey(),
+                            attempt.activityId(), submission.response());
+                }
+            }
+        });
+        batchSizes.record(submissions.size());
+    }
+
+    private void release(PreparedSubmission submission) {
+        if (submission.idempotencyKey() != null) {
+            idempotencyKeyStore.release(submission.attempt().studentId(), submission.idempotencyKey());
+        }
+    }
+}
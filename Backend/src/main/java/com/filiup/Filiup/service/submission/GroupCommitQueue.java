@@ -0,0 +1,126 @@
+package com.filiup.Filiup.service.submission;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Group commit: items submitted by many threads are handed to a single writer thread, which
+ * flushes up to {@code maxBatchSize} of them in one call. Items arriving during a flush form the
+ * next batch; {@code maxDelayMicros} optionally makes the writer wait that long after the first
+ * item for more to arrive. Each submitter gets a future that completes once
+ * the flush holding its item has returned, i.e. once the item is durable.
+ * <p>
+ * When the queue is full or the writer has stopped, the item is flushed on the calling thread,
+ * so submissions are never rejected. If a batch fails, its items are retried one by one so a
+ * single bad item only fails its own future.
+ */
+@Slf4j
+public final class GroupCommitQueue<T> {
+
+    private record Pending<T>(T item, CompletableFuture<Void> future) {
+    }
+
+    private final BlockingQueue<Pending<T>> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Consumer<List<T>> flusher;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public GroupCommitQueue(String name, int capacity, int maxBatchSize, long maxDelayMicros, Consumer<List<T>> flusher) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.flusher = flusher;
+        this.writer = new Thread(this::run, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public CompletableFuture<Void> submit(T item) {
+        Pending<T> pending = new Pending<>(item, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            flush(List.of(pending));
+        } else if (!running && queue.remove(pending)) {
+            // Shutdown started after the offer and may already have drained the queue
+            flush(List.of(pending));
+        }
+        return pending.future();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting items into the queue and waits for the writer to flush what is queued.
+     */
+    public void shutdown(long timeoutMillis) throws InterruptedException {
+        running = false;
+        writer.join(timeoutMillis);
+        // Anything the writer could not reach in time is flushed here
+        List<Pending<T>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        try {
+            flusher.accept(batch.stream().map(Pending::item).toList());
+            batch.forEach(pending -> pending.future().complete(null));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit of {} items failed, retrying them one by one", batch.size(), e);
+            for (Pending<T> pending : batch) {
+                flush(List.of(pending));
+            }
+        }
+    }
+}
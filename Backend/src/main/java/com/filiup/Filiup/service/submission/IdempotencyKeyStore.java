@@ -0,0 +1,148 @@
+package com.filiup.Filiup.service.submission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filiup.Filiup.dto.student.ActivitySubmissionResponse;
+import com.filiup.Filiup.entity.SubmissionIdempotencyKey;
+import com.filiup.Filiup.repository.SubmissionIdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the response of each {@code Idempotency-Key}ed submission for a window, so a client
+ * retry gets the original response without being scored or written again. Recent keys are
+ * answered from a bounded in-memory index; the table makes replays work across restarts and
+ * instances, and its unique key serializes concurrent retries of the same submission.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyKeyStore {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private final SubmissionIdempotencyKeyRepository keyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${student.submissions.idempotency.window-minutes:1440}")
+    private long windowMinutes;
+
+    @Value("${student.submissions.idempotency.index-max-size:20000}")
+    private int indexMaxSize;
+
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+
+    private record Entry(UUID activityId, ActivitySubmissionResponse response, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Claims the key for this submission inside the caller's transaction. Returns the stored
+     * response if the key was already used for the same activity within the window; an empty
+     * result means the caller should process the submission and {@link #complete} it.
+     */
+    public Optional<ActivitySubmissionResponse> claim(UUID studentId, String key, UUID activityId) {
+        validate(key);
+        LocalDateTime now = LocalDateTime.now();
+
+        Entry entry = index.get(indexKey(studentId, key));
+        if (entry != null && entry.expiresAt().isAfter(now)) {
+            return Optional.of(replay(entry.activityId(), activityId, entry.response()));
+        }
+
+        if (keyRepository.claim(UUID.randomUUID(), studentId, key, activityId, now, now.minus(window())) == 1) {
+            return Optional.empty();
+        }
+
+        SubmissionIdempotencyKey stored = keyRepository.findByStudentIdAndIdempotencyKey(studentId, key)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key claim disappeared"));
+        if (stored.getResponse() == null) {
+            throw new RuntimeException("A submission with this Idempotency-Key is still being processed");
+        }
+        ActivitySubmissionResponse response = objectMapper.convertValue(stored.getResponse(), ActivitySubmissionResponse.class);
+        remember(studentId, key, new Entry(stored.getActivityId(), response, stored.getCreatedAt().plus(window())));
+        return Optional.of(replay(stored.getActivityId(), activityId, response));
+    }
+
+    // Stores the response with the claim; it is indexed in memory once the transaction commits
+    public void complete(UUID studentId, String key, UUID activityId, ActivitySubmissionResponse response) {
+        try {
+            keyRepository.storeResponse(studentId, key, objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize submission response", e);
+        }
+
+        Entry entry = new Entry(activityId, response, LocalDateTime.now().plus(window()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(studentId, key, entry);
+                }
+            });
+        } else {
+            remember(studentId, key, entry);
+        }
+    }
+
+    /**
+     * Releases a claim whose submission failed after the claim was committed, as happens in
+     * group-commit mode, so a retry is processed instead of being reported as in flight.
+     */
+    public void release(UUID studentId, String key) {
+        keyRepository.deletePending(studentId, key);
+    }
+
+    @Scheduled(fixedDelayString = "${student.submissions.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        index.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        int deleted = keyRepository.deleteExpired(now.minus(window()));
+        if (deleted > 0) {
+            log.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private static ActivitySubmissionResponse replay(UUID storedActivityId, UUID activityId,
+                                                     ActivitySubmissionResponse response) {
+        if (!storedActivityId.equals(activityId)) {
+            throw new RuntimeException("Idempotency-Key was already used for a different activity");
+        }
+        return response;
+    }
+
+    private void remember(UUID studentId, String key, Entry entry) {
+        if (index.size() >= indexMaxSize) {
+            LocalDateTime now = LocalDateTime.now();
+            index.values().removeIf(existing -> !existing.expiresAt().isAfter(now));
+            if (index.size() >= indexMaxSize) {
+                index.clear();
+            }
+        }
+        index.put(indexKey(studentId, key), entry);
+    }
+
+    private Duration window() {
+        return Duration.ofMinutes(windowMinutes);
+    }
+
+    private static String indexKey(UUID studentId, String key) {
+        return studentId + ":" + key;
+    }
+
+    private static void validate(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.filiup.Filiup.service.submission;
+
+import com.filiup.Filiup.dto.student.ActivitySubmissionResponse;
+
+/**
+ * A scored submission whose attempt still has to be written, or the recorded response of an
+ * earlier submission with the same idempotency key ({@code replayed}, nothing to write).
+ */
+public record PreparedSubmission(AttemptRecord attempt, String idempotencyKey, ActivitySubmissionResponse response,
+                                 boolean replayed) {
+
+    public static PreparedSubmission replay(ActivitySubmissionResponse response) {
+        return new PreparedSubmission(null, null, response, true);
+    }
+}
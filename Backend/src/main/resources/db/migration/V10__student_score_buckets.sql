@@ -0,0 +1,26 @@
+-- Points each student gained per day (changes of their best scores), summed for windowed leaderboards
+CREATE TABLE IF NOT EXISTS student_score_buckets (
+    id          UUID PRIMARY KEY,
+    student_id  UUID NOT NULL REFERENCES users (id),
+    bucket_date DATE NOT NULL,
+    score       INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT uk_student_score_buckets_student_date UNIQUE (student_id, bucket_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_student_score_buckets_date ON student_score_buckets (bucket_date, student_id);
+
+-- Backfill by replaying the history as AttemptWriter records it: an attempt counts when its percentage
+-- is strictly higher than every earlier one for the activity, and adds its score minus the previous best's
+INSERT INTO student_score_buckets (id, student_id, bucket_date, score)
+SELECT gen_random_uuid(), student_id, bucket_date, SUM(delta)
+FROM (SELECT student_id,
+             CAST(COALESCE(completed_at, created_at) AS DATE) AS bucket_date,
+             score - COALESCE(LAG(score) OVER (PARTITION BY student_id, activity_id ORDER BY created_at, id), 0) AS delta
+      FROM (SELECT a.*,
+                   MAX(percentage) OVER (PARTITION BY student_id, activity_id ORDER BY created_at, id
+                                         ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_best
+            FROM student_activity_attempts a) history
+      WHERE previous_best IS NULL OR percentage > previous_best) improvements
+GROUP BY student_id, bucket_date
+HAVING SUM(delta) <> 0
+ON CONFLICT (student_id, bucket_date) DO NOTHING;
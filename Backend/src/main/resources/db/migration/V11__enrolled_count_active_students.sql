@@ -0,0 +1,6 @@
+-- Seats are only taken by active students: deactivating a student releases their seat
+UPDATE sections s
+SET enrolled_count = (
+    SELECT COUNT(*) FROM users u
+    WHERE u.section_id = s.id AND u.role = 'STUDENT' AND u.is_active = true
+);
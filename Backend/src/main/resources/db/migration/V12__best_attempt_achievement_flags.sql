@@ -0,0 +1,22 @@
+-- Whether any attempt of the activity was perfect (100%) or a quick pass (>= 80% within 60 seconds),
+-- and whether the last write of the row set that flag for the first time (1) or not (0)
+ALTER TABLE student_best_attempts ADD COLUMN IF NOT EXISTS perfect BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE student_best_attempts ADD COLUMN IF NOT EXISTS quick_pass BOOLEAN NOT NULL DEFAULT false;
+ALTER TABLE student_best_attempts ADD COLUMN IF NOT EXISTS perfect_delta INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE student_best_attempts ADD COLUMN IF NOT EXISTS quick_pass_delta INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill the flags from the attempt history
+UPDATE student_best_attempts b
+SET perfect = EXISTS (SELECT 1 FROM student_activity_attempts a
+                      WHERE a.student_id = b.student_id AND a.activity_id = b.activity_id
+                        AND a.percentage = 100),
+    quick_pass = EXISTS (SELECT 1 FROM student_activity_attempts a
+                         WHERE a.student_id = b.student_id AND a.activity_id = b.activity_id
+                           AND a.percentage >= 80 AND a.time_spent_seconds <= 60);
+
+-- Resubmissions used to count again; both counters count activities, as the V6 backfill did
+UPDATE student_progress_counters c
+SET perfect_scores = (SELECT COUNT(*) FROM student_best_attempts b
+                      WHERE b.student_id = c.student_id AND b.perfect),
+    quick_passes = (SELECT COUNT(*) FROM student_best_attempts b
+                    WHERE b.student_id = c.student_id AND b.quick_pass);
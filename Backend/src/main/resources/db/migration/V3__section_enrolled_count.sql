@@ -0,0 +1,9 @@
+-- Seat counter used to enforce section capacity atomically during enrollment
+ALTER TABLE sections ADD COLUMN IF NOT EXISTS enrolled_count INTEGER DEFAULT 0;
+
+-- Backfill from the students already assigned to each section
+UPDATE sections s
+SET enrolled_count = (
+    SELECT COUNT(*) FROM users u
+    WHERE u.section_id = s.id AND u.role = 'STUDENT'
+);
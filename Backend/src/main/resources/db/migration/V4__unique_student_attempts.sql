@@ -0,0 +1,23 @@
+-- One attempt row per student and activity: keep the most recent row of each pair
+DELETE FROM student_activity_attempts a
+USING student_activity_attempts b
+WHERE a.student_id = b.student_id
+  AND a.activity_id = b.activity_id
+  AND (a.created_at < b.created_at OR (a.created_at = b.created_at AND a.id < b.id));
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'uk_student_activity_attempts_student_activity') THEN
+        ALTER TABLE student_activity_attempts
+            ADD CONSTRAINT uk_student_activity_attempts_student_activity UNIQUE (student_id, activity_id);
+    END IF;
+END $$;
+
+-- Lesson progress already declares UNIQUE (student_id, lesson_id); drop any duplicates left
+-- over from before the constraint existed, keeping completed rows first
+DELETE FROM student_lesson_progress a
+USING student_lesson_progress b
+WHERE a.student_id = b.student_id
+  AND a.lesson_id = b.lesson_id
+  AND (COALESCE(a.is_completed, false), a.created_at, a.id) < (COALESCE(b.is_completed, false), b.created_at, b.id);
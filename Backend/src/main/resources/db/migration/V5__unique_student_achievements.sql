@@ -0,0 +1,15 @@
+-- Each achievement is earned once per student: keep the earliest row of each pair
+DELETE FROM student_achievements a
+USING student_achievements b
+WHERE a.student_id = b.student_id
+  AND a.achievement_type = b.achievement_type
+  AND (a.earned_at > b.earned_at OR (a.earned_at = b.earned_at AND a.id > b.id));
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conname = 'uk_student_achievements_student_type') THEN
+        ALTER TABLE student_achievements
+            ADD CONSTRAINT uk_student_achievements_student_type UNIQUE (student_id, achievement_type);
+    END IF;
+END $$;
@@ -0,0 +1,34 @@
+-- Per-student running totals that achievement rules are evaluated against
+CREATE TABLE IF NOT EXISTS student_progress_counters (
+    student_id         UUID PRIMARY KEY REFERENCES users (id),
+    lessons_completed  INTEGER NOT NULL DEFAULT 0,
+    phases_completed   INTEGER NOT NULL DEFAULT 0,
+    perfect_scores     INTEGER NOT NULL DEFAULT 0,
+    quick_passes       INTEGER NOT NULL DEFAULT 0,
+    time_spent_seconds BIGINT  NOT NULL DEFAULT 0,
+    updated_at         TIMESTAMP
+);
+
+-- Backfill from the existing progress; quick passes are >= 80% within 60 seconds
+INSERT INTO student_progress_counters (student_id, lessons_completed, phases_completed, perfect_scores,
+                                       quick_passes, time_spent_seconds, updated_at)
+SELECT u.id,
+       (SELECT COUNT(*) FROM student_lesson_progress p
+        WHERE p.student_id = u.id AND p.is_completed = true),
+       (SELECT COUNT(*) FROM phases ph
+        WHERE EXISTS (SELECT 1 FROM lessons l WHERE l.phase_id = ph.id)
+          AND NOT EXISTS (SELECT 1 FROM lessons l
+                          WHERE l.phase_id = ph.id
+                            AND NOT EXISTS (SELECT 1 FROM student_lesson_progress p
+                                            WHERE p.lesson_id = l.id AND p.student_id = u.id
+                                              AND p.is_completed = true))),
+       (SELECT COUNT(*) FROM student_activity_attempts a
+        WHERE a.student_id = u.id AND a.percentage = 100),
+       (SELECT COUNT(*) FROM student_activity_attempts a
+        WHERE a.student_id = u.id AND a.percentage >= 80 AND a.time_spent_seconds <= 60),
+       (SELECT COALESCE(SUM(GREATEST(a.time_spent_seconds, 0)), 0) FROM student_activity_attempts a
+        WHERE a.student_id = u.id),
+       NOW()
+FROM users u
+WHERE u.role = 'STUDENT'
+ON CONFLICT (student_id) DO NOTHING;
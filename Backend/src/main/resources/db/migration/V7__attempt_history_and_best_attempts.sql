@@ -0,0 +1,34 @@
+-- student_activity_attempts becomes an append-only history again: one row per submission
+ALTER TABLE student_activity_attempts DROP CONSTRAINT IF EXISTS uk_student_activity_attempts_student_activity;
+CREATE INDEX IF NOT EXISTS idx_student_activity_attempts_student_created
+    ON student_activity_attempts (student_id, created_at);
+
+-- Best attempt per student and activity, maintained by the statement that appends each attempt
+CREATE TABLE IF NOT EXISTS student_best_attempts (
+    id                 UUID PRIMARY KEY,
+    student_id         UUID NOT NULL REFERENCES users (id),
+    activity_id        UUID NOT NULL REFERENCES activities (id),
+    attempt_id         UUID NOT NULL,
+    score              INTEGER NOT NULL,
+    total_questions    INTEGER NOT NULL,
+    percentage         NUMERIC(5, 2) NOT NULL,
+    time_spent_seconds INTEGER,
+    completed_at       TIMESTAMP,
+    attempts_count     INTEGER NOT NULL DEFAULT 1,
+    updated_at         TIMESTAMP,
+    CONSTRAINT uk_student_best_attempts_student_activity UNIQUE (student_id, activity_id)
+);
+
+-- Backfill: highest percentage per pair, earliest attempt on ties
+INSERT INTO student_best_attempts (id, student_id, activity_id, attempt_id, score, total_questions, percentage,
+                                   time_spent_seconds, completed_at, attempts_count, updated_at)
+SELECT gen_random_uuid(), best.student_id, best.activity_id, best.id, best.score, best.total_questions,
+       best.percentage, best.time_spent_seconds, best.completed_at, counts.attempts, NOW()
+FROM (SELECT DISTINCT ON (student_id, activity_id) *
+      FROM student_activity_attempts
+      ORDER BY student_id, activity_id, percentage DESC, created_at, id) best
+JOIN (SELECT student_id, activity_id, COUNT(*) AS attempts
+      FROM student_activity_attempts
+      GROUP BY student_id, activity_id) counts
+  ON counts.student_id = best.student_id AND counts.activity_id = best.activity_id
+ON CONFLICT (student_id, activity_id) DO NOTHING;
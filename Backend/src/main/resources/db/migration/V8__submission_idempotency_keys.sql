@@ -0,0 +1,13 @@
+-- Responses of Idempotency-Key'd submissions, replayed to client retries within the window
+CREATE TABLE IF NOT EXISTS submission_idempotency_keys (
+    id              UUID PRIMARY KEY,
+    student_id      UUID NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    activity_id     UUID NOT NULL,
+    response        JSONB,
+    created_at      TIMESTAMP NOT NULL,
+    CONSTRAINT uk_submission_idempotency_keys_student_key UNIQUE (student_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_submission_idempotency_keys_created
+    ON submission_idempotency_keys (created_at);
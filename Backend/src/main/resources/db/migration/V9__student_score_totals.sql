@@ -0,0 +1,21 @@
+-- Change the last write of a best-attempt row made to the student's total (its score when inserted)
+ALTER TABLE student_best_attempts ADD COLUMN IF NOT EXISTS score_delta INTEGER NOT NULL DEFAULT 0;
+
+-- Per-student sum of best scores, maintained by the statement that records each attempt
+CREATE TABLE IF NOT EXISTS student_score_totals (
+    student_id           UUID PRIMARY KEY REFERENCES users (id),
+    total_score          INTEGER NOT NULL DEFAULT 0,
+    activities_completed INTEGER NOT NULL DEFAULT 0,
+    updated_at           TIMESTAMP
+);
+
+-- Serves the school leaderboard in (total_score, student_id) order, both for top-K and keyset pages
+CREATE INDEX IF NOT EXISTS idx_student_score_totals_rank
+    ON student_score_totals (total_score DESC, student_id DESC);
+
+-- Backfill from the best attempts
+INSERT INTO student_score_totals (student_id, total_score, activities_completed, updated_at)
+SELECT student_id, SUM(score), COUNT(*), MAX(updated_at)
+FROM student_best_attempts
+GROUP BY student_id
+ON CONFLICT (student_id) DO NOTHING;
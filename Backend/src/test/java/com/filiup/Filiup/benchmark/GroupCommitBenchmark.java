@@ -0,0 +1,87 @@
+package com.filiup.Filiup.benchmark;
+
+import com.filiup.Filiup.service.submission.GroupCommitQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares recording each submission in its own transaction with {@link GroupCommitQueue} under
+ * 16 concurrent submitters. The database is simulated: a commit costs {@code commitMicros} and
+ * commits are serialized, like WAL flushes, plus {@code rowMicros} per written row. Results
+ * show the shape of the gain, not Postgres numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    @Param({"100"})
+    private long commitMicros;
+
+    @Param({"2"})
+    private long rowMicros;
+
+    @Param({"0", "200", "2000"})
+    private long maxDelayMicros;
+
+    private GroupCommitQueue<Integer> queue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new GroupCommitQueue<>("benchmark-group-commit", 2000, 200, maxDelayMicros, this::commit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        queue.shutdown(1000);
+    }
+
+    @Benchmark
+    public void transactionPerSubmission() {
+        commit(List.of(1));
+    }
+
+    @Benchmark
+    public void groupCommit() {
+        queue.submit(1).join();
+    }
+
+    private synchronized void commit(List<Integer> rows) {
+        spin(TimeUnit.MICROSECONDS.toNanos(commitMicros + rowMicros * rows.size()));
+    }
+
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GroupCommitBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,164 @@
+package com.filiup.Filiup.benchmark;
+
+import com.filiup.Filiup.entity.Activity;
+import com.filiup.Filiup.entity.ActivityType;
+import com.filiup.Filiup.entity.DragDropItem;
+import com.filiup.Filiup.entity.Question;
+import com.filiup.Filiup.service.scoring.AnswerKey;
+import com.filiup.Filiup.service.scoring.ChoiceScorer;
+import com.filiup.Filiup.service.scoring.DragDropScorer;
+import com.filiup.Filiup.service.scoring.MatchingPairsScorer;
+import com.filiup.Filiup.service.scoring.ScoreResult;
+import com.filiup.Filiup.service.scoring.ScoringEngine;
+import com.filiup.Filiup.service.scoring.SubmittedAnswers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous {@code StudentService.calculateScore} (boxed answers, entity walk,
+ * HashMap result) with {@link ScoringEngine} on a precompiled {@link AnswerKey}.
+ * Run {@link #main} from the IDE or with the test classpath; the GC profiler reports
+ * {@code gc.alloc.rate.norm} (bytes allocated per submission).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    @Param({"10", "50"})
+    private int questions;
+
+    private Activity multipleChoice;
+    private Activity dragDrop;
+    private List<Object> choiceAnswers;
+    private List<Object> categoryAnswers;
+
+    private AnswerKey choiceKey;
+    private AnswerKey dragDropKey;
+    private ScoringEngine engine;
+
+    @Setup
+    public void setUp() {
+        multipleChoice = Activity.builder().id(UUID.randomUUID()).activityType(ActivityType.MULTIPLE_CHOICE).build();
+        dragDrop = Activity.builder().id(UUID.randomUUID()).activityType(ActivityType.DRAG_DROP).build();
+        choiceAnswers = new ArrayList<>();
+        categoryAnswers = new ArrayList<>();
+
+        for (int i = 0; i < questions; i++) {
+            multipleChoice.getQuestions().add(Question.builder().correctAnswerIndex(i % 4).orderIndex(i).build());
+            dragDrop.getDragDropItems().add(DragDropItem.builder().correctCategory("category-" + (i % 3)).orderIndex(i).build());
+            // Roughly three quarters correct, as decoded from JSON (Integer / String elements)
+            choiceAnswers.add(i % 4 == 0 ? (i + 1) % 4 : i % 4);
+            categoryAnswers.add(new String(("category-" + (i % 3 == 0 ? 1 : i % 3)).toCharArray()));
+        }
+
+        choiceKey = AnswerKey.compile(multipleChoice);
+        dragDropKey = AnswerKey.compile(dragDrop);
+        engine = new ScoringEngine(List.of(new ChoiceScorer(), new DragDropScorer(), new MatchingPairsScorer()));
+    }
+
+    @Benchmark
+    public BigDecimal legacyMultipleChoice() {
+        Map<String, Object> result = legacyCalculateScore(multipleChoice, choiceAnswers);
+        return legacyPercentage(result);
+    }
+
+    @Benchmark
+    public BigDecimal engineMultipleChoice() {
+        ScoreResult result = engine.score(choiceKey, SubmittedAnswers.of(choiceAnswers));
+        return result.percentage();
+    }
+
+    @Benchmark
+    public BigDecimal legacyDragDrop() {
+        Map<String, Object> result = legacyCalculateScore(dragDrop, categoryAnswers);
+        return legacyPercentage(result);
+    }
+
+    @Benchmark
+    public BigDecimal engineDragDrop() {
+        ScoreResult result = engine.score(dragDropKey, SubmittedAnswers.of(categoryAnswers));
+        return result.percentage();
+    }
+
+    private static BigDecimal legacyPercentage(Map<String, Object> result) {
+        int score = (int) result.get("score");
+        int totalQuestions = (int) result.get("totalQuestions");
+        return BigDecimal.valueOf((score * 100.0) / totalQuestions).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Entity branches of the previous StudentService.calculateScore, kept verbatim for comparison
+    private static Map<String, Object> legacyCalculateScore(Activity activity, List<Object> studentAnswers) {
+        int score = 0;
+        int totalQuestions = 0;
+
+        switch (activity.getActivityType()) {
+            case MULTIPLE_CHOICE:
+            case STORY_COMPREHENSION:
+                List<Question> questionEntities = activity.getQuestions();
+                totalQuestions = questionEntities.size();
+                for (int i = 0; i < questionEntities.size() && i < studentAnswers.size(); i++) {
+                    Question question = questionEntities.get(i);
+                    Integer correctAnswer = question.getCorrectAnswerIndex();
+                    Integer studentAnswer = ((Number) studentAnswers.get(i)).intValue();
+                    if (correctAnswer.equals(studentAnswer)) {
+                        score++;
+                    }
+                }
+                break;
+
+            case DRAG_DROP:
+                List<DragDropItem> itemEntities = activity.getDragDropItems();
+                totalQuestions = itemEntities.size();
+                for (int i = 0; i < itemEntities.size() && i < studentAnswers.size(); i++) {
+                    DragDropItem item = itemEntities.get(i);
+                    String correctCategory = item.getCorrectCategory();
+                    String studentCategory = (String) studentAnswers.get(i);
+                    if (correctCategory.equals(studentCategory)) {
+                        score++;
+                    }
+                }
+                break;
+
+            default:
+                break;
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("score", score);
+        result.put("totalQuestions", totalQuestions);
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScoringBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatisticTreapTest {
+
+    @Test
+    void insertKeepsElementsInOrder() {
+        OrderStatisticTreap<Integer> treap = new OrderStatisticTreap<>(Comparator.naturalOrder());
+        for (int value : new int[]{5, 1, 9, 3, 7}) {
+            treap.insert(value);
+        }
+
+        assertThat(treap.size()).isEqualTo(5);
+        assertThat(treap.slice(0, Integer.MAX_VALUE)).containsExactly(1, 3, 5, 7, 9);
+        assertThat(treap.get(0)).isEqualTo(1);
+        assertThat(treap.get(4)).isEqualTo(9);
+        assertThatThrownBy(() -> treap.get(5)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void removeDropsOnlyTheGivenElement() {
+        OrderStatisticTreap<Integer> treap = new OrderStatisticTreap<>(Comparator.naturalOrder());
+        for (int value = 1; value <= 5; value++) {
+            treap.insert(value);
+        }
+
+        treap.remove(3);
+        treap.remove(42);
+
+        assertThat(treap.size()).isEqualTo(4);
+        assertThat(treap.slice(0, 10)).containsExactly(1, 2, 4, 5);
+    }
+
+    @Test
+    void indexOfCountsElementsOrderedBefore() {
+        OrderStatisticTreap<Integer> treap = new OrderStatisticTreap<>(Comparator.naturalOrder());
+        for (int value : new int[]{10, 20, 30}) {
+            treap.insert(value);
+        }
+
+        assertThat(treap.indexOf(10)).isZero();
+        assertThat(treap.indexOf(30)).isEqualTo(2);
+        // Absent values report where they would be inserted
+        assertThat(treap.indexOf(25)).isEqualTo(2);
+        assertThat(treap.indexOf(99)).isEqualTo(3);
+    }
+
+    @Test
+    void countPrefixCountsLeadingMatches() {
+        OrderStatisticTreap<Integer> treap = new OrderStatisticTreap<>(Comparator.naturalOrder());
+        for (int value = 1; value <= 10; value++) {
+            treap.insert(value);
+        }
+
+        assertThat(treap.countPrefix(value -> value < 4)).isEqualTo(3);
+        assertThat(treap.countPrefix(value -> value < 0)).isZero();
+        assertThat(treap.countPrefix(value -> true)).isEqualTo(10);
+    }
+
+    @Test
+    void sliceClampsToTheAvailableRange() {
+        OrderStatisticTreap<Integer> treap = new OrderStatisticTreap<>(Comparator.naturalOrder());
+        for (int value = 0; value < 10; value++) {
+            treap.insert(value);
+        }
+
+        assertThat(treap.slice(3, 4)).containsExactly(3, 4, 5, 6);
+        assertThat(treap.slice(8, 5)).containsExactly(8, 9);
+        assertThat(treap.slice(10, 5)).isEmpty();
+        assertThat(treap.slice(5, Integer.MAX_VALUE)).containsExactly(5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void tiedTotalsAreOrderedByNameThenId() {
+        OrderStatisticTreap<StudentStanding> treap = new OrderStatisticTreap<>(StudentStanding.LEADERBOARD_ORDER);
+        UUID lowId = new UUID(0, 1);
+        UUID highId = new UUID(0, 2);
+        StudentStanding top = standing(UUID.randomUUID(), "Zed", 90);
+        StudentStanding bea = standing(UUID.randomUUID(), "bea", 50);
+        StudentStanding ana = standing(UUID.randomUUID(), "Ana", 50);
+        StudentStanding carlosHigh = standing(highId, "Carlos", 50);
+        StudentStanding carlosLow = standing(lowId, "Carlos", 50);
+        StudentStanding unnamed = standing(UUID.randomUUID(), null, 50);
+
+        for (StudentStanding standing : List.of(unnamed, carlosHigh, bea, top, carlosLow, ana)) {
+            treap.insert(standing);
+        }
+
+        assertThat(treap.slice(0, 10)).containsExactly(top, ana, bea, carlosLow, carlosHigh, unnamed);
+        assertThat(treap.countPrefix(standing -> standing.totalScore() > 50)).isEqualTo(1);
+
+        // Moving a student means removing the old standing and inserting the new one
+        treap.remove(carlosHigh);
+        treap.insert(carlosHigh.withTotalScore(95));
+        assertThat(treap.get(0).studentId()).isEqualTo(highId);
+        assertThat(treap.indexOf(top)).isEqualTo(1);
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomUpdates() {
+        OrderStatisticTreap<Integer> treap = new OrderStatisticTreap<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(500);
+            if (expected.contains(value)) {
+                treap.remove(value);
+                expected.remove(value);
+            } else {
+                treap.insert(value);
+                expected.add(value);
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertThat(treap.size()).isEqualTo(sorted.size());
+        assertThat(treap.slice(0, Integer.MAX_VALUE)).isEqualTo(sorted);
+        for (int probe = 0; probe < 500; probe += 7) {
+            assertThat(treap.indexOf(probe)).isEqualTo(expected.headSet(probe).size());
+        }
+    }
+
+    private static StudentStanding standing(UUID studentId, String name, int totalScore) {
+        return new StudentStanding(studentId, name, totalScore, 0, 0.0, 0);
+    }
+}
@@ -0,0 +1,155 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import com.filiup.Filiup.repository.StudentScoreTotalRepository;
+import com.filiup.Filiup.service.achievement.StudentProgressEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SchoolPodiumTest {
+
+    private final UUID ana = UUID.randomUUID();
+    private final UUID ben = UUID.randomUUID();
+    private final UUID cruz = UUID.randomUUID();
+    private final UUID dana = UUID.randomUUID();
+    private final UUID eli = UUID.randomUUID();
+
+    private StudentScoreTotalRepository repository;
+    private SchoolPodium podium;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StudentScoreTotalRepository.class);
+        podium = new SchoolPodium(repository);
+        ReflectionTestUtils.setField(podium, "podiumSize", 3);
+        ReflectionTestUtils.setField(podium, "maxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(podium, "maxRefresh", 1000);
+        when(repository.findTop(anyInt()))
+                .thenReturn(rows(row(ana, "Ana", 90), row(ben, "Ben", 80), row(cruz, "Cruz", 70)));
+    }
+
+    @Test
+    void studentBeatingThePodiumEntersWithoutReseed() {
+        podium.podium();
+        when(repository.findByStudentIds(anyCollection())).thenReturn(rows(row(dana, "Dana", 85)));
+
+        podium.onProgress(StudentProgressEvent.batchSubmitted(dana));
+
+        assertThat(names(podium.podium())).containsExactly("Ana", "Dana", "Ben");
+        verify(repository, times(1)).findTop(3);
+    }
+
+    @Test
+    void memberGainingPointsMovesUpWithoutReseed() {
+        podium.podium();
+        when(repository.findByStudentIds(anyCollection())).thenReturn(rows(row(cruz, "Cruz", 95)));
+
+        podium.onProgress(StudentProgressEvent.batchSubmitted(cruz));
+
+        assertThat(names(podium.podium())).containsExactly("Cruz", "Ana", "Ben");
+        verify(repository, times(1)).findTop(3);
+    }
+
+    @Test
+    void memberDroppingFromAFullPodiumForcesReseed() {
+        podium.podium();
+        when(repository.findByStudentIds(anyCollection())).thenReturn(rows(row(ben, "Ben", 10)));
+        when(repository.findTop(anyInt()))
+                .thenReturn(rows(row(ana, "Ana", 90), row(cruz, "Cruz", 70), row(eli, "Eli", 60)));
+
+        podium.onProgress(StudentProgressEvent.batchSubmitted(ben));
+
+        // Only the reseed knows Eli is next
+        assertThat(names(podium.podium())).containsExactly("Ana", "Cruz", "Eli");
+        verify(repository, times(2)).findTop(3);
+    }
+
+    @Test
+    void deactivatedMemberForcesReseed() {
+        podium.podium();
+        // Inactive students are not returned by the totals queries
+        when(repository.findByStudentIds(anyCollection())).thenReturn(rows());
+        when(repository.findTop(anyInt()))
+                .thenReturn(rows(row(ben, "Ben", 80), row(cruz, "Cruz", 70), row(eli, "Eli", 60)));
+
+        podium.invalidate(ana);
+
+        assertThat(names(podium.podium())).containsExactly("Ben", "Cruz", "Eli");
+        verify(repository, times(2)).findTop(3);
+    }
+
+    @Test
+    void memberDroppingFromAPartialPodiumIsReorderedInPlace() {
+        when(repository.findTop(anyInt())).thenReturn(rows(row(ana, "Ana", 90), row(ben, "Ben", 80)));
+        podium.podium();
+        when(repository.findByStudentIds(anyCollection())).thenReturn(rows(row(ana, "Ana", 50)));
+
+        podium.onProgress(StudentProgressEvent.batchSubmitted(ana));
+
+        assertThat(names(podium.podium())).containsExactly("Ben", "Ana");
+        verify(repository, times(1)).findTop(3);
+    }
+
+    @Test
+    void moreChangesThanMaxRefreshReseedInsteadOfReReading() {
+        ReflectionTestUtils.setField(podium, "maxRefresh", 2);
+        podium.podium();
+
+        podium.onProgress(StudentProgressEvent.batchSubmitted(dana));
+        podium.onProgress(StudentProgressEvent.batchSubmitted(eli));
+        podium.onProgress(StudentProgressEvent.batchSubmitted(UUID.randomUUID()));
+        podium.podium();
+
+        verify(repository, never()).findByStudentIds(anyCollection());
+        verify(repository, times(2)).findTop(3);
+    }
+
+    @Test
+    void changesUpToMaxRefreshAreReRead() {
+        ReflectionTestUtils.setField(podium, "maxRefresh", 2);
+        podium.podium();
+        when(repository.findByStudentIds(anyCollection())).thenReturn(rows(row(dana, "Dana", 5), row(eli, "Eli", 6)));
+
+        podium.onProgress(StudentProgressEvent.batchSubmitted(dana));
+        podium.onProgress(StudentProgressEvent.batchSubmitted(eli));
+
+        assertThat(names(podium.podium())).containsExactly("Ana", "Ben", "Cruz");
+        verify(repository, times(1)).findByStudentIds(anyCollection());
+        verify(repository, times(1)).findTop(3);
+    }
+
+    @Test
+    void podiumOlderThanMaxAgeIsReseeded() {
+        ReflectionTestUtils.setField(podium, "maxAgeSeconds", 0L);
+
+        podium.podium();
+        podium.podium();
+
+        verify(repository, times(2)).findTop(3);
+    }
+
+    private static Object[] row(UUID studentId, String name, int totalScore) {
+        return new Object[]{studentId, name, "Section", totalScore, 1};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static List<String> names(List<SchoolStanding> standings) {
+        return standings.stream().map(SchoolStanding::name).toList();
+    }
+}
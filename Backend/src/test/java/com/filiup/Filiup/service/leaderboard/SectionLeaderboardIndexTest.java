@@ -0,0 +1,153 @@
+package com.filiup.Filiup.service.leaderboard;
+
+import com.filiup.Filiup.repository.StudentBestAttemptRepository;
+import com.filiup.Filiup.service.achievement.StudentProgressEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SectionLeaderboardIndexTest {
+
+    private final UUID sectionId = UUID.randomUUID();
+    private final UUID ana = UUID.randomUUID();
+    private final UUID ben = UUID.randomUUID();
+    private final UUID cruz = UUID.randomUUID();
+
+    private StudentBestAttemptRepository repository;
+    private SectionLeaderboardIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StudentBestAttemptRepository.class);
+        index = new SectionLeaderboardIndex(repository);
+        ReflectionTestUtils.setField(index, "maxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(index, "maxSections", 1000);
+    }
+
+    @Test
+    void seedsOnceAndRanksTiesTogether() {
+        when(repository.findSectionStandings(sectionId))
+                .thenReturn(rows(row(ana, "Ana", 80), row(ben, "Ben", 80), row(cruz, "Cruz", 40)));
+
+        assertThat(names(index.standings(sectionId))).containsExactly("Ana", "Ben", "Cruz");
+        assertThat(index.rankOf(sectionId, ben)).isEqualTo(OptionalInt.of(1));
+        assertThat(index.rankOf(sectionId, cruz)).isEqualTo(OptionalInt.of(3));
+        assertThat(index.rankOf(sectionId, UUID.randomUUID())).isEmpty();
+        assertThat(names(index.page(sectionId, 1, 1))).containsExactly("Ben");
+
+        verify(repository, times(1)).findSectionStandings(sectionId);
+        verify(repository, never()).findSectionStandings(eq(sectionId), anyCollection());
+    }
+
+    @Test
+    void refreshesOnlyChangedStudentsOnTheNextRead() {
+        when(repository.findSectionStandings(sectionId))
+                .thenReturn(rows(row(ana, "Ana", 80), row(ben, "Ben", 60), row(cruz, "Cruz", 40)));
+        index.standings(sectionId);
+
+        when(repository.findSectionStandings(eq(sectionId), anyCollection()))
+                .thenReturn(rows(row(cruz, "Cruz", 95)));
+        index.onProgress(StudentProgressEvent.batchSubmitted(cruz));
+        index.onProgress(StudentProgressEvent.batchSubmitted(ben));
+
+        // Ben is no longer returned, i.e. he left the section
+        assertThat(names(index.standings(sectionId))).containsExactly("Cruz", "Ana");
+        assertThat(index.rankOf(sectionId, ben)).isEmpty();
+        verify(repository).findSectionStandings(eq(sectionId), eq(Set.of(cruz, ben)));
+        verify(repository, times(1)).findSectionStandings(sectionId);
+    }
+
+    @Test
+    void studentChangedDuringSeedIsRefreshed() {
+        // Ana's attempt commits while the seed query runs; the seed returns her old total
+        when(repository.findSectionStandings(sectionId)).thenAnswer(invocation -> {
+            index.onProgress(StudentProgressEvent.batchSubmitted(ana));
+            return rows(row(ana, "Ana", 10), row(ben, "Ben", 60));
+        });
+        when(repository.findSectionStandings(eq(sectionId), anyCollection()))
+                .thenReturn(rows(row(ana, "Ana", 90)));
+
+        List<StudentStanding> standings = index.standings(sectionId);
+
+        assertThat(names(standings)).containsExactly("Ana", "Ben");
+        assertThat(standings.get(0).totalScore()).isEqualTo(90);
+        verify(repository).findSectionStandings(eq(sectionId), eq(Set.of(ana)));
+    }
+
+    @Test
+    void failedRefreshIsRetriedOnTheNextRead() {
+        when(repository.findSectionStandings(sectionId)).thenReturn(rows(row(ana, "Ana", 10)));
+        index.standings(sectionId);
+        index.onProgress(StudentProgressEvent.batchSubmitted(ana));
+        when(repository.findSectionStandings(eq(sectionId), anyCollection()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(rows(row(ana, "Ana", 30)));
+
+        // Surfaced to the caller; the change stays pending
+        assertThatThrownBy(() -> index.standings(sectionId)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(index.standings(sectionId).get(0).totalScore()).isEqualTo(30);
+    }
+
+    @Test
+    void invalidateReseedsTheSection() {
+        when(repository.findSectionStandings(sectionId))
+                .thenReturn(rows(row(ana, "Ana", 10)))
+                .thenReturn(rows(row(ana, "Ana", 10), row(ben, "Ben", 20)));
+        index.standings(sectionId);
+
+        index.invalidate(sectionId);
+
+        assertThat(names(index.standings(sectionId))).containsExactly("Ben", "Ana");
+        verify(repository, times(2)).findSectionStandings(sectionId);
+    }
+
+    @Test
+    void fullIndexEvictsOnlyTheOldestSection() {
+        ReflectionTestUtils.setField(index, "maxSections", 2);
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(repository.findSectionStandings(sectionId)).thenReturn(rows(row(ana, "Ana", 10)));
+        when(repository.findSectionStandings(second)).thenReturn(rows(row(ben, "Ben", 20)));
+        when(repository.findSectionStandings(third)).thenReturn(rows(row(cruz, "Cruz", 30)));
+
+        index.standings(sectionId);
+        index.standings(second);
+        index.standings(third);
+        index.standings(second);
+        index.standings(sectionId);
+
+        verify(repository, times(2)).findSectionStandings(sectionId);
+        verify(repository, times(1)).findSectionStandings(second);
+        verify(repository, times(1)).findSectionStandings(third);
+    }
+
+    private static Object[] row(UUID studentId, String name, int totalScore) {
+        return new Object[]{studentId, name, totalScore, 1, 50.0, 0};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static List<String> names(Collection<StudentStanding> standings) {
+        return standings.stream().map(StudentStanding::name).toList();
+    }
+}
@@ -0,0 +1,260 @@
+package com.filiup.Filiup.service.scoring;
+
+import com.filiup.Filiup.entity.Activity;
+import com.filiup.Filiup.entity.ActivityType;
+import com.filiup.Filiup.entity.DragDropItem;
+import com.filiup.Filiup.entity.MatchingPair;
+import com.filiup.Filiup.entity.Question;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoringEngineTest {
+
+    private final ScoringEngine engine = new ScoringEngine(
+            List.of(new ChoiceScorer(), new DragDropScorer(), new MatchingPairsScorer()));
+
+    @Test
+    void scoresMultipleChoiceFromQuestionEntities() {
+        AnswerKey key = AnswerKey.compile(entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 1, 0, 2));
+
+        assertThat(score(key, 1, 0, 2)).isEqualTo(new ScoreResult(3, 3));
+        assertThat(score(key, 1, 1, 1)).isEqualTo(new ScoreResult(1, 3));
+    }
+
+    @Test
+    void scoresStoryComprehensionFromContentMap() {
+        Activity activity = contentActivity(ActivityType.STORY_COMPREHENSION, "questions", List.of(
+                Map.of("correctAnswerIndex", 2),
+                Map.of("correctAnswerIndex", 0)));
+        AnswerKey key = AnswerKey.compile(activity);
+
+        assertThat(key.size()).isEqualTo(2);
+        assertThat(score(key, 2, 0)).isEqualTo(new ScoreResult(2, 2));
+        assertThat(score(key, 0, 2)).isEqualTo(new ScoreResult(0, 2));
+    }
+
+    @Test
+    void scoresMultipleChoiceFromContentMap() {
+        Activity activity = contentActivity(ActivityType.MULTIPLE_CHOICE, "questions", List.of(
+                Map.of("correctAnswerIndex", 1)));
+
+        assertThat(score(AnswerKey.compile(activity), 1)).isEqualTo(new ScoreResult(1, 1));
+    }
+
+    @Test
+    void scoresStoryComprehensionFromQuestionEntities() {
+        AnswerKey key = AnswerKey.compile(entityChoiceActivity(ActivityType.STORY_COMPREHENSION, 3, 1));
+
+        assertThat(score(key, 3, 0)).isEqualTo(new ScoreResult(1, 2));
+    }
+
+    @Test
+    void questionWithoutCorrectIndexNeverMatches() {
+        Activity entities = entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 0);
+        entities.getQuestions().add(Question.builder().orderIndex(1).build());
+        Activity content = contentActivity(ActivityType.MULTIPLE_CHOICE, "questions", List.of(
+                Map.of("correctAnswerIndex", 0),
+                Map.of("questionText", "no key")));
+
+        for (Activity activity : List.of(entities, content)) {
+            AnswerKey key = AnswerKey.compile(activity);
+            assertThat(key.correctIndex(1)).isEqualTo(AnswerKey.NO_CORRECT_INDEX);
+            assertThat(score(key, 0, 0)).isEqualTo(new ScoreResult(1, 2));
+            assertThat(engine.score(key, SubmittedAnswers.of(Arrays.asList(0, null))))
+                    .isEqualTo(new ScoreResult(1, 2));
+        }
+    }
+
+    @Test
+    void shortAnswerListLeavesTrailingQuestionsWrong() {
+        AnswerKey key = AnswerKey.compile(entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 1, 0, 2));
+
+        assertThat(score(key, 1)).isEqualTo(new ScoreResult(1, 3));
+    }
+
+    @Test
+    void extraAnswersBeyondKeyAreIgnored() {
+        AnswerKey key = AnswerKey.compile(entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 1, 0));
+
+        assertThat(score(key, 1, 0, 3, 3, 3)).isEqualTo(new ScoreResult(2, 2));
+    }
+
+    @Test
+    void nullOrEmptyAnswersScoreZeroForEveryType() {
+        List<AnswerKey> keys = List.of(
+                AnswerKey.compile(entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 1)),
+                AnswerKey.compile(entityDragDropActivity("noun")),
+                AnswerKey.compile(entityMatchingActivity(1)));
+
+        for (AnswerKey key : keys) {
+            assertThat(engine.score(key, SubmittedAnswers.of(null))).isEqualTo(new ScoreResult(0, 1));
+            assertThat(engine.score(key, SubmittedAnswers.of(List.of()))).isEqualTo(new ScoreResult(0, 1));
+            assertThat(engine.score(key, SubmittedAnswers.of(Arrays.asList(null, null))))
+                    .isEqualTo(new ScoreResult(0, 1));
+        }
+    }
+
+    @Test
+    void unansweredItemsScoreWrong() {
+        AnswerKey choice = AnswerKey.compile(entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 1, 0));
+        AnswerKey dragDrop = AnswerKey.compile(entityDragDropActivity("noun", "verb"));
+
+        assertThat(engine.score(choice, SubmittedAnswers.of(Arrays.asList(null, 0))))
+                .isEqualTo(new ScoreResult(1, 2));
+        assertThat(engine.score(dragDrop, SubmittedAnswers.of(Arrays.asList("noun", null))))
+                .isEqualTo(new ScoreResult(1, 2));
+    }
+
+    @Test
+    void scoresDragDropFromItemEntities() {
+        AnswerKey key = AnswerKey.compile(entityDragDropActivity("noun", "verb", "noun"));
+
+        assertThat(score(key, "noun", "verb", "noun")).isEqualTo(new ScoreResult(3, 3));
+        assertThat(score(key, "verb", "verb")).isEqualTo(new ScoreResult(1, 3));
+        assertThat(score(key, "noun", "verb", "noun", "verb")).isEqualTo(new ScoreResult(3, 3));
+    }
+
+    @Test
+    void scoresDragDropFromContentMap() {
+        Activity activity = contentActivity(ActivityType.DRAG_DROP, "dragDropItems", List.of(
+                Map.of("correctCategory", "noun"),
+                Map.of("correctCategory", "verb"),
+                Map.of("text", "no category")));
+        AnswerKey key = AnswerKey.compile(activity);
+
+        assertThat(key.expectedValue(2)).isNull();
+        assertThat(score(key, "noun", "noun", "noun")).isEqualTo(new ScoreResult(1, 3));
+        assertThat(score(key, "noun", "verb")).isEqualTo(new ScoreResult(2, 3));
+    }
+
+    @Test
+    void scoresMatchingPairsFromPairEntities() {
+        Activity activity = entityMatchingActivity(3);
+        List<MatchingPair> pairs = activity.getMatchingPairs();
+        AnswerKey key = AnswerKey.compile(activity);
+        String first = pairs.get(0).getId().toString();
+        String second = pairs.get(1).getId().toString();
+        String third = pairs.get(2).getId().toString();
+
+        assertThat(score(key, first, second, third)).isEqualTo(new ScoreResult(3, 3));
+        assertThat(score(key, second, first)).isEqualTo(new ScoreResult(0, 3));
+        assertThat(score(key, first, second, third, first)).isEqualTo(new ScoreResult(3, 3));
+    }
+
+    @Test
+    void scoresMatchingPairsFromContentMap() {
+        Activity activity = contentActivity(ActivityType.MATCHING_PAIRS, "matchingPairs", List.of(
+                Map.of("id", "p1"),
+                Map.of("id", "p2")));
+        AnswerKey key = AnswerKey.compile(activity);
+
+        assertThat(score(key, "p1", "p2")).isEqualTo(new ScoreResult(2, 2));
+        assertThat(score(key, "p2", "p2")).isEqualTo(new ScoreResult(1, 2));
+    }
+
+    @Test
+    void rejectsAnswersOfTheWrongKind() {
+        AnswerKey choice = AnswerKey.compile(entityChoiceActivity(ActivityType.MULTIPLE_CHOICE, 1));
+        AnswerKey dragDrop = AnswerKey.compile(entityDragDropActivity("noun"));
+        AnswerKey matching = AnswerKey.compile(entityMatchingActivity(1));
+
+        assertThatThrownBy(() -> score(choice, "1"))
+                .hasMessage("Invalid answer format: expected option indices");
+        assertThatThrownBy(() -> score(dragDrop, 0))
+                .hasMessage("Invalid answer format: expected category IDs");
+        assertThatThrownBy(() -> score(matching, 0))
+                .hasMessage("Invalid answer format: expected pair IDs");
+    }
+
+    @Test
+    void activityWithoutItemsScoresZeroPercent() {
+        Activity empty = Activity.builder()
+                .id(UUID.randomUUID())
+                .activityType(ActivityType.MULTIPLE_CHOICE)
+                .build();
+        AnswerKey key = AnswerKey.compile(empty);
+
+        ScoreResult result = score(key, 1, 2);
+
+        assertThat(result).isEqualTo(new ScoreResult(0, 0));
+        assertThat(result.percentage()).isEqualByComparingTo("0.00");
+        assertThat(result.percentage().scale()).isEqualTo(2);
+    }
+
+    @Test
+    void percentageRoundsToTwoDecimals() {
+        assertThat(new ScoreResult(2, 3).percentage()).isEqualTo(new BigDecimal("66.67"));
+        assertThat(new ScoreResult(3, 3).percentage()).isEqualTo(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void rejectsDuplicateAndMissingScorers() {
+        assertThatThrownBy(() -> new ScoringEngine(List.of(new ChoiceScorer(), new DragDropScorer())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("No scorer registered for MATCHING_PAIRS");
+        assertThatThrownBy(() -> new ScoringEngine(List.of(
+                new ChoiceScorer(), new DragDropScorer(), new MatchingPairsScorer(), new DragDropScorer())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("More than one scorer registered for DRAG_DROP");
+    }
+
+    private ScoreResult score(AnswerKey key, Object... answers) {
+        return engine.score(key, SubmittedAnswers.of(Arrays.asList(answers)));
+    }
+
+    private static Activity entityChoiceActivity(ActivityType type, int... correctIndices) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < correctIndices.length; i++) {
+            questions.add(Question.builder().correctAnswerIndex(correctIndices[i]).orderIndex(i).build());
+        }
+        return Activity.builder()
+                .id(UUID.randomUUID())
+                .activityType(type)
+                .questions(questions)
+                .build();
+    }
+
+    private static Activity entityDragDropActivity(String... categories) {
+        List<DragDropItem> items = new ArrayList<>();
+        for (int i = 0; i < categories.length; i++) {
+            items.add(DragDropItem.builder().correctCategory(categories[i]).orderIndex(i).build());
+        }
+        return Activity.builder()
+                .id(UUID.randomUUID())
+                .activityType(ActivityType.DRAG_DROP)
+                .dragDropItems(items)
+                .build();
+    }
+
+    private static Activity entityMatchingActivity(int count) {
+        List<MatchingPair> pairs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pairs.add(MatchingPair.builder().id(UUID.randomUUID()).orderIndex(i).build());
+        }
+        return Activity.builder()
+                .id(UUID.randomUUID())
+                .activityType(ActivityType.MATCHING_PAIRS)
+                .matchingPairs(pairs)
+                .build();
+    }
+
+    private static Activity contentActivity(ActivityType type, String listKey, List<?> items) {
+        Map<String, Object> content = new HashMap<>();
+        content.put(listKey, items);
+        return Activity.builder()
+                .id(UUID.randomUUID())
+                .activityType(type)
+                .content(content)
+                .build();
+    }
+}
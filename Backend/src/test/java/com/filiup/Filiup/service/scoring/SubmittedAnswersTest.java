@@ -0,0 +1,108 @@
+package com.filiup.Filiup.service.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SubmittedAnswersTest {
+
+    @Test
+    void decodesOptionIndices() {
+        SubmittedAnswers answers = SubmittedAnswers.of(List.of(2, 0L, 1.0, new BigDecimal("3")));
+
+        assertThat(answers.kind()).isEqualTo(SubmittedAnswers.Kind.INDICES);
+        assertThat(answers.size()).isEqualTo(4);
+        assertThat(answers.indices()).containsExactly(2, 0, 1, 3);
+        assertThatThrownBy(answers::values).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void decodesStringIds() {
+        SubmittedAnswers answers = SubmittedAnswers.of(List.of("noun", "verb"));
+
+        assertThat(answers.kind()).isEqualTo(SubmittedAnswers.Kind.VALUES);
+        assertThat(answers.values()).containsExactly("noun", "verb");
+        assertThatThrownBy(answers::indices).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void nullsBecomeUnanswered() {
+        SubmittedAnswers indices = SubmittedAnswers.of(Arrays.asList(null, 1, null));
+        SubmittedAnswers values = SubmittedAnswers.of(Arrays.asList("noun", null));
+
+        assertThat(indices.indices())
+                .containsExactly(SubmittedAnswers.UNANSWERED, 1, SubmittedAnswers.UNANSWERED);
+        assertThat(values.values()).containsExactly("noun", null);
+    }
+
+    @Test
+    void emptyNullOrAllNullAnswersHaveNoKind() {
+        assertThat(SubmittedAnswers.of(null).kind()).isEqualTo(SubmittedAnswers.Kind.NONE);
+        assertThat(SubmittedAnswers.of(List.of()).kind()).isEqualTo(SubmittedAnswers.Kind.NONE);
+
+        SubmittedAnswers allNull = SubmittedAnswers.of(Arrays.asList(null, null));
+        assertThat(allNull.kind()).isEqualTo(SubmittedAnswers.Kind.NONE);
+        assertThat(allNull.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsMixedNumbersAndStrings() {
+        assertThatThrownBy(() -> SubmittedAnswers.of(List.of(1, "noun")))
+                .hasMessage("Invalid answer format: answers mix numbers and strings");
+        assertThatThrownBy(() -> SubmittedAnswers.of(Arrays.asList("noun", null, 0)))
+                .hasMessage("Invalid answer format: answers mix numbers and strings");
+    }
+
+    @Test
+    void rejectsFractionalIndices() {
+        assertThatThrownBy(() -> SubmittedAnswers.of(List.of(1.5)))
+                .hasMessage("Invalid answer format: option indices must be non-negative whole numbers");
+        assertThatThrownBy(() -> SubmittedAnswers.of(List.of(Double.NaN)))
+                .hasMessage("Invalid answer format: option indices must be non-negative whole numbers");
+    }
+
+    @Test
+    void rejectsOutOfRangeIndices() {
+        List<Number> outOfRange = List.of(
+                -1,
+                Integer.MIN_VALUE,
+                (long) Integer.MAX_VALUE + 1,
+                1e12,
+                Double.POSITIVE_INFINITY);
+
+        for (Number index : outOfRange) {
+            assertThatThrownBy(() -> SubmittedAnswers.of(List.of(index)))
+                    .as("index %s", index)
+                    .hasMessage("Invalid answer format: option indices must be non-negative whole numbers");
+        }
+        assertThat(SubmittedAnswers.of(List.of(Integer.MAX_VALUE)).indices()).containsExactly(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void rejectsNestedValues() {
+        assertThatThrownBy(() -> SubmittedAnswers.of(List.of(Map.of("index", 1))))
+                .hasMessage("Invalid answer format: answers must be numbers or strings");
+        assertThatThrownBy(() -> SubmittedAnswers.of(List.of(List.of(1, 2))))
+                .hasMessage("Invalid answer format: answers must be numbers or strings");
+        assertThatThrownBy(() -> SubmittedAnswers.of(List.of(true)))
+                .hasMessage("Invalid answer format: answers must be numbers or strings");
+    }
+
+    @Test
+    void rejectsMoreThanMaxAnswers() {
+        List<Object> atLimit = new ArrayList<>(Collections.nCopies(SubmittedAnswers.MAX_ANSWERS, 0));
+        assertThat(SubmittedAnswers.of(atLimit).size()).isEqualTo(SubmittedAnswers.MAX_ANSWERS);
+
+        atLimit.add(0);
+        assertThatThrownBy(() -> SubmittedAnswers.of(atLimit))
+                .hasMessage("Too many answers submitted");
+    }
+}
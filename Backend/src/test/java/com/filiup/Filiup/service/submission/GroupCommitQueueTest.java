@@ -0,0 +1,147 @@
+package com.filiup.Filiup.service.submission;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupCommitQueueTest {
+
+    private final CountDownLatch writerBlocked = new CountDownLatch(1);
+    private final CountDownLatch releaseWriter = new CountDownLatch(1);
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<String> flushThreads = new CopyOnWriteArrayList<>();
+
+    private GroupCommitQueue<String> queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseWriter.countDown();
+        if (queue != null) {
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    void shutdownCompletesEveryQueuedFuture() throws Exception {
+        queue = new GroupCommitQueue<>("test-group-commit", 100, 10, 0, blockingFlusher(batch -> { }));
+        CompletableFuture<Void> first = queue.submit("first");
+        assertThat(writerBlocked.await(1, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> queued = submitAll("item-", 25);
+
+        Thread shutdown = new Thread(() -> {
+            try {
+                queue.shutdown(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        shutdown.start();
+        releaseWriter.countDown();
+        shutdown.join(5000);
+
+        assertThat(shutdown.isAlive()).isFalse();
+        assertThat(first).isCompleted();
+        assertThat(queued).allSatisfy(future -> assertThat(future).isCompleted());
+        assertThat(flushedItems()).hasSize(26);
+    }
+
+    @Test
+    void shutdownFlushesOnTheCallerWhenTheWriterIsStuck() throws Exception {
+        queue = new GroupCommitQueue<>("test-group-commit", 100, 10, 0, blockingFlusher(batch -> { }));
+        CompletableFuture<Void> first = queue.submit("first");
+        assertThat(writerBlocked.await(1, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Void>> queued = submitAll("item-", 5);
+
+        queue.shutdown(50);
+
+        assertThat(queued).allSatisfy(future -> assertThat(future).isCompleted());
+        assertThat(flushThreads).contains(Thread.currentThread().getName());
+        assertThat(first).isNotDone();
+        releaseWriter.countDown();
+        first.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void fullQueueFlushesOnTheCallingThread() throws Exception {
+        queue = new GroupCommitQueue<>("test-group-commit", 1, 10, 0, blockingFlusher(batch -> { }));
+        queue.submit("first");
+        assertThat(writerBlocked.await(1, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> queued = queue.submit("queued");
+
+        CompletableFuture<Void> overflow = queue.submit("overflow");
+
+        assertThat(overflow).isCompleted();
+        assertThat(queued).isNotDone();
+        assertThat(batches).contains(List.of("overflow"));
+        assertThat(flushThreads).containsExactly("test-group-commit", Thread.currentThread().getName());
+    }
+
+    @Test
+    void badItemFailsOnlyItsOwnFuture() throws Exception {
+        queue = new GroupCommitQueue<>("test-group-commit", 100, 10, 0, blockingFlusher(batch -> {
+            if (batch.contains("bad")) {
+                throw new IllegalStateException("constraint violated");
+            }
+        }));
+        CompletableFuture<Void> first = queue.submit("first");
+        assertThat(writerBlocked.await(1, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> before = queue.submit("before");
+        CompletableFuture<Void> bad = queue.submit("bad");
+        CompletableFuture<Void> after = queue.submit("after");
+
+        releaseWriter.countDown();
+
+        assertThat(bad).failsWithin(1, TimeUnit.SECONDS);
+        first.get(1, TimeUnit.SECONDS);
+        before.get(1, TimeUnit.SECONDS);
+        after.get(1, TimeUnit.SECONDS);
+        // The failed batch was retried item by item
+        assertThat(batches).contains(List.of("before", "bad", "after"), List.of("before"), List.of("after"));
+        assertThat(flushedItems()).containsExactlyInAnyOrder("first", "before", "after");
+    }
+
+    // Records each flushed batch; the writer's first flush waits until the test releases it
+    private Consumer<List<String>> blockingFlusher(Consumer<List<String>> check) {
+        return batch -> {
+            flushThreads.add(Thread.currentThread().getName());
+            if (writerBlocked.getCount() > 0 && Thread.currentThread().getName().equals("test-group-commit")) {
+                writerBlocked.countDown();
+                try {
+                    releaseWriter.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            batches.add(List.copyOf(batch));
+            check.accept(batch);
+        };
+    }
+
+    private List<CompletableFuture<Void>> submitAll(String prefix, int count) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(queue.submit(prefix + i));
+        }
+        return futures;
+    }
+
+    // Items of the batches that went through without throwing
+    private List<String> flushedItems() {
+        List<String> items = new ArrayList<>();
+        for (List<String> batch : batches) {
+            if (!batch.contains("bad")) {
+                items.addAll(batch);
+            }
+        }
+        return items;
+    }
+}
@@ -25,16 +25,50 @@ api.interceptors.request.use(
   }
 );
 
+// Shared in-flight refresh so concurrent 401s rotate the refresh token only once
+let refreshPromise: Promise<string> | null = null;
+
+function refreshAccessToken(): Promise<string> {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshPromise = (refreshToken
+      ? axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken }).then((response) => {
+          localStorage.setItem('token', response.data.token);
+          localStorage.setItem('refreshToken', response.data.refreshToken);
+          localStorage.setItem('user', JSON.stringify(response.data.user));
+          return response.data.token as string;
+        })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => {
+      refreshPromise = null;
+    });
+  }
+  return refreshPromise;
+}
+
 // Response interceptor to handle errors
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
     if (error.response?.status === 401) {
       // Token expired or invalid
       const originalRequest = error.config;
+
+      // Try once to resume the session with the refresh token before logging out
+      if (originalRequest && !originalRequest._retry && !originalRequest._isLogout
+          && !originalRequest.url?.includes('/auth/')) {
+        originalRequest._retry = true;
+        try {
+          const token = await refreshAccessToken();
+          originalRequest.headers.Authorization = `Bearer ${token}`;
+          return api(originalRequest);
+        } catch {
+          // Fall through to the session expired handling below
+        }
+      }
       
-      // Only handle if this is not a retry request and not already logging out
-      if (!originalRequest._retry && !originalRequest._isLogout) {
+      // Only handle if not already logging out
+      if (originalRequest && !originalRequest._isLogout) {
         // If this is a page load request (not an API call), redirect to login
         if (window.location.pathname !== '/login') {
           // Clear auth data
@@ -184,6 +218,33 @@ export interface ActivitySubmissionResponse {
     id: string;
     type: string;
   };
+  // Set instead of nextActivity when the submitted activity ends its lesson
+  nextLesson?: {
+    id: string;
+    title: string;
+    phaseId?: string;
+    phaseTitle?: string;
+    newPhase: boolean;
+  };
+}
+
+export interface BatchSubmitActivityRequest {
+  submissions: (SubmitActivityRequest & {
+    activityId: string;
+    // ISO local date-time of when the activity was finished on the device
+    completedAt?: string;
+  })[];
+}
+
+export interface BatchSubmissionResponse {
+  accepted: number;
+  rejected: number;
+  results: {
+    index: number;
+    activityId: string;
+    submission?: ActivitySubmissionResponse;
+    error?: string;
+  }[];
 }
 
 // Student Dashboard Response Types
@@ -372,6 +433,25 @@ export interface SectionLeaderboardResponse {
   students: StudentRankingResponse[];
 }
 
+// Weekly and monthly leaderboards rank by points gained in the current week or month
+export type LeaderboardPeriod = 'all_time' | 'week' | 'month';
+
+export interface SchoolRanking {
+  studentId: string;
+  studentName: string;
+  sectionName: string | null;
+  totalScore: number;
+  completedActivities: number;
+  rank: number;
+}
+
+export interface SchoolLeaderboardResponse {
+  podium: SchoolRanking[] | null;
+  rankings: SchoolRanking[];
+  nextCursor: string | null;
+  lastUpdated: string;
+}
+
 // Auth API
 export const authAPI = {
   login: async (data: LoginRequest): Promise<AuthResponse> => {
@@ -384,8 +464,12 @@ export const authAPI = {
     return response.data;
   },
 
-  resetPassword: async (data: PasswordResetRequest) => {
+  resetPassword: async (data: PasswordResetRequest): Promise<AuthResponse> => {
     const response = await api.post('/auth/reset-password', data);
+    // Older tokens are revoked by the reset; keep the session going with the new pair
+    localStorage.setItem('token', response.data.token);
+    localStorage.setItem('refreshToken', response.data.refreshToken);
+    localStorage.setItem('user', JSON.stringify(response.data.user));
     return response.data;
   },
   // Mark first-login flow as completed on server (teacher)
@@ -614,13 +698,22 @@ export const teacherAPI = {
   },
 
   // Leaderboard API
-  getSectionLeaderboard: async (sectionId: string): Promise<SectionLeaderboardResponse> => {
-    const response = await api.get(`/teacher/sections/${sectionId}/leaderboard`);
+  getSectionLeaderboard: async (sectionId: string, period?: LeaderboardPeriod): Promise<SectionLeaderboardResponse> => {
+    const url = period ? `/teacher/sections/${sectionId}/leaderboard?period=${period}` : `/teacher/sections/${sectionId}/leaderboard`;
+    const response = await api.get(url);
     return response.data;
   },
 
-  getAllSectionsLeaderboard: async (): Promise<SectionLeaderboardResponse[]> => {
-    const response = await api.get('/teacher/leaderboard/all-sections');
+  getAllSectionsLeaderboard: async (period?: LeaderboardPeriod): Promise<SectionLeaderboardResponse[]> => {
+    const url = period ? `/teacher/leaderboard/all-sections?period=${period}` : '/teacher/leaderboard/all-sections';
+    const response = await api.get(url);
+    return response.data;
+  },
+
+  // Pass the previous page's nextCursor to continue
+  getSchoolLeaderboard: async (cursor?: string): Promise<SchoolLeaderboardResponse> => {
+    const url = cursor ? `/teacher/leaderboard/school?cursor=${encodeURIComponent(cursor)}` : '/teacher/leaderboard/school';
+    const response = await api.get(url);
     return response.data;
   },
 
@@ -686,13 +779,30 @@ export const studentAPI = {
   },
 
   submitActivity: async (id: string, data: SubmitActivityRequest): Promise<ActivitySubmissionResponse> => {
-    const response = await api.post(`/student/activities/${id}/submit`, data);
+    // One key per submission: a retry of this request replays the recorded result
+    const response = await api.post(`/student/activities/${id}/submit`, data, {
+      headers: { 'Idempotency-Key': crypto.randomUUID() },
+    });
+    return response.data;
+  },
+
+  // Uploads activities finished while offline in one request
+  submitActivities: async (data: BatchSubmitActivityRequest): Promise<BatchSubmissionResponse> => {
+    const response = await api.post('/student/activities/submissions', data);
     return response.data;
   },
 
   // Leaderboard API
-  getLeaderboard: async (): Promise<SectionLeaderboardResponse> => {
-    const response = await api.get('/student/leaderboard');
+  getLeaderboard: async (period?: LeaderboardPeriod): Promise<SectionLeaderboardResponse> => {
+    const url = period ? `/student/leaderboard?period=${period}` : '/student/leaderboard';
+    const response = await api.get(url);
+    return response.data;
+  },
+
+  // Pass the previous page's nextCursor to continue
+  getSchoolLeaderboard: async (cursor?: string): Promise<SchoolLeaderboardResponse> => {
+    const url = cursor ? `/student/leaderboard/school?cursor=${encodeURIComponent(cursor)}` : '/student/leaderboard/school';
+    const response = await api.get(url);
     return response.data;
   },
 